@@ -0,0 +1,70 @@
+package com.ruchir.InventoryStore.benchmark;
+
+import com.ruchir.InventoryStore.InventoryStoreApplication;
+import com.ruchir.InventoryStore.Service.ProductService;
+import com.ruchir.InventoryStore.model.Product;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+// POST /{id}/decrease throughput on one hot product on the JPA engine: one conditional UPDATE
+// per call (every caller queues on the row lock) vs. CoalescingProductService combining the
+// callers that arrive together into one UPDATE. Same in-memory H2 caveat as StockEngineBenchmark:
+// row-lock hand-offs are far cheaper than on PostgreSQL, so the gap there is larger.
+//   mvn -Pbenchmark test-compile exec:exec -Djmh.args="DecrementCoalescingBenchmark"
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+public class DecrementCoalescingBenchmark {
+
+    @Param({"false", "true"})
+    public boolean coalescing;
+
+    private ConfigurableApplicationContext context;
+    private ProductService service;
+    private Long productId;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = new SpringApplicationBuilder(InventoryStoreApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--inventory.stock.coalescing.enabled=" + coalescing,
+                        "--spring.datasource.hikari.maximum-pool-size=16",
+                        "--logging.level.root=WARN");
+        service = context.getBean(ProductService.class);
+        productId = service.createProduct(Product.builder()
+                .name("Viral SKU")
+                .stockQuantity(Integer.MAX_VALUE / 2)
+                .lowStockThreshold(0)
+                .build()).getId();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Product decrease_1thread() {
+        return service.decreaseStock(productId, 1);
+    }
+
+    @Benchmark
+    @Threads(16)
+    public Product decrease_16threads() {
+        return service.decreaseStock(productId, 1);
+    }
+
+    @Benchmark
+    @Threads(64)
+    public Product decrease_64threads() {
+        return service.decreaseStock(productId, 1);
+    }
+}
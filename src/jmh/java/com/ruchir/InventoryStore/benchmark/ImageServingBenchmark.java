@@ -0,0 +1,155 @@
+package com.ruchir.InventoryStore.benchmark;
+
+import com.ruchir.InventoryStore.InventoryStoreApplication;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.core.io.UrlResource;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.function.RouterFunction;
+import org.springframework.web.servlet.function.RouterFunctions;
+import org.springframework.web.servlet.function.ServerResponse;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Load test for GET /api/products/images/{name} over real HTTP (embedded Tomcat, loopback):
+// the current handler (sendfile/transferTo, ETag, Range) vs. the previous UrlResource handler,
+// re-created here as a functional route. "bytes" is the total body size received during the
+// measurement, so the revalidate_* rows show what a browser/CDN with a warm cache downloads.
+// Run with -prof gc to compare allocation per response.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+public class ImageServingBenchmark {
+
+    private static final String IMAGE = "0f1e2d3c4b5a69788796a5b4c3d2e1f00f1e2d3c4b5a69788796a5b4c3d2e1f0.jpg";
+
+    // Below and above inventory.images.sendfile-min-size (48KB)
+    @Param({"16384", "1048576"})
+    public int imageBytes;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private String token;
+    private String baseUrl;
+    private String etag;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Received {
+        public long bytes;
+    }
+
+    @Setup(Level.Trial)
+    public void start() throws Exception {
+        Path imageDir = Files.createTempDirectory("image-bench");
+        byte[] image = new byte[imageBytes];
+        new Random(42).nextBytes(image);
+        Files.write(imageDir.resolve(IMAGE), image);
+
+        context = new SpringApplicationBuilder(InventoryStoreApplication.class)
+                .initializers(ctx -> ((GenericApplicationContext) ctx).registerBean(
+                        "legacyImageRoute", RouterFunction.class, () -> legacyRoute(imageDir)))
+                .properties(
+                        "server.port=0",
+                        "logging.level.root=WARN")
+                // as an argument: default properties would lose to the test application.properties
+                .run("--inventory.images.dir=" + imageDir, "--inventory.rate-limit.enabled=false");
+        baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+        post("/api/auth/signup?username=bench&password=bench");
+        token = post("/api/auth/login?username=bench&password=bench");
+        HttpResponse<Void> first = client.send(get("/api/products/images/" + IMAGE).build(),
+                HttpResponse.BodyHandlers.discarding());
+        etag = first.headers().firstValue("ETag")
+                .orElseThrow(() -> new IllegalStateException("Image request failed: HTTP " + first.statusCode()));
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    public int full_legacy(Received received) throws Exception {
+        return send(get("/legacy/images/" + IMAGE), received);
+    }
+
+    @Benchmark
+    public int full_current(Received received) throws Exception {
+        return send(get("/api/products/images/" + IMAGE), received);
+    }
+
+    // The legacy handler sends no validators, so a client can only download the image again
+    @Benchmark
+    public int revalidate_legacy(Received received) throws Exception {
+        return send(get("/legacy/images/" + IMAGE).header("If-None-Match", "\"unknown\""), received);
+    }
+
+    @Benchmark
+    public int revalidate_current(Received received) throws Exception {
+        return send(get("/api/products/images/" + IMAGE).header("If-None-Match", etag), received);
+    }
+
+    @Benchmark
+    public int range_current(Received received) throws Exception {
+        return send(get("/api/products/images/" + IMAGE).header("Range", "bytes=0-8191"), received);
+    }
+
+    private int send(HttpRequest.Builder request, Received received) throws Exception {
+        HttpResponse<InputStream> response = client.send(request.build(), HttpResponse.BodyHandlers.ofInputStream());
+        received.bytes += drain(response.body());
+        return response.statusCode();
+    }
+
+    private HttpRequest.Builder get(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Authorization", "Bearer " + token)
+                .GET();
+    }
+
+    private String post(String path) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString()).body();
+    }
+
+    private static long drain(InputStream body) throws IOException {
+        try (body) {
+            byte[] buffer = new byte[16384];
+            long total = 0;
+            int read;
+            while ((read = body.read(buffer)) != -1) {
+                total += read;
+            }
+            return total;
+        }
+    }
+
+    // The handler as it was before: UrlResource body, fixed image/jpeg, no caching headers
+    private static RouterFunction<ServerResponse> legacyRoute(Path imageDir) {
+        return RouterFunctions.route()
+                .GET("/legacy/images/{filename}", request -> {
+                    Path filePath = imageDir.resolve(request.pathVariable("filename")).normalize();
+                    return ServerResponse.ok()
+                            .contentType(MediaType.IMAGE_JPEG)
+                            .body(new UrlResource(filePath.toUri()));
+                })
+                .build();
+    }
+}
@@ -0,0 +1,88 @@
+package com.ruchir.InventoryStore.benchmark;
+
+import com.ruchir.InventoryStore.Config.JwtFilter;
+import com.ruchir.InventoryStore.Service.AuthenticatedPrincipalCache;
+import com.ruchir.InventoryStore.Service.CustomUserDetailsService;
+import com.ruchir.InventoryStore.Service.JwtService;
+import com.ruchir.InventoryStore.dao.UserRepository;
+import com.ruchir.InventoryStore.model.UserEntity;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+// Per-request cost of JwtFilter for an authenticated call, with and without the principal cache.
+// userLookupMicros simulates the findByUsername round trip (0 = pure CPU cost of the filter).
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtFilterBenchmark {
+
+    @Param({"true", "false"})
+    public boolean principalCache;
+
+    @Param({"0", "250"})
+    public int userLookupMicros;
+
+    private JwtFilter filter;
+    private String authorization;
+    private final FilterChain chain = (request, response) -> { };
+
+    @Setup
+    public void setUp() {
+        JwtService jwtService = new JwtService();
+        authorization = "Bearer " + jwtService.generateToken("bench-user");
+        UserEntity user = UserEntity.builder().id(1L).username("bench-user").password("{noop}x").role("USER").build();
+        filter = new JwtFilter(
+                jwtService,
+                new CustomUserDetailsService(userRepository(user, userLookupMicros), new SimpleMeterRegistry()),
+                new AuthenticatedPrincipalCache(principalCache, 10_000, Duration.ofMinutes(5)),
+                new SimpleMeterRegistry());
+    }
+
+    @Benchmark
+    public Authentication authenticatedRequest() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/products/1");
+        request.setServletPath("/api/products/1");
+        request.addHeader("Authorization", authorization);
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return authentication;
+    }
+
+    // Only findByUsername is used by CustomUserDetailsService
+    static UserRepository userRepository(UserEntity user, int lookupMicros) {
+        return (UserRepository) Proxy.newProxyInstance(
+                UserRepository.class.getClassLoader(),
+                new Class<?>[]{UserRepository.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "findByUsername" -> {
+                        spin(lookupMicros);
+                        yield Optional.of(user);
+                    }
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> "UserRepositoryStub";
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    private static void spin(int micros) {
+        long end = System.nanoTime() + TimeUnit.MICROSECONDS.toNanos(micros);
+        while (System.nanoTime() < end) {
+            Thread.onSpinWait();
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.ruchir.InventoryStore.benchmark;
+
+import com.ruchir.InventoryStore.Service.JwtService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+
+import javax.crypto.KeyGenerator;
+import javax.crypto.SecretKey;
+import java.util.Base64;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+// Token generation/validation throughput of JwtService (prebuilt key + parser, one parse per
+// validation) against the previous implementation (key decoded and parser rebuilt per call,
+// token parsed once per claim). Run with -prof gc to see the allocation difference.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtServiceBenchmark {
+
+    private JwtService jwtService;
+    private String token;
+
+    private String legacySecret;
+    private String legacyToken;
+
+    @Setup
+    public void setUp() throws Exception {
+        jwtService = new JwtService();
+        token = jwtService.generateToken("bench-user");
+
+        SecretKey secret = KeyGenerator.getInstance("HmacSHA256").generateKey();
+        legacySecret = Base64.getEncoder().encodeToString(secret.getEncoded());
+        legacyToken = legacyGenerate("bench-user");
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtService.generateToken("bench-user");
+    }
+
+    @Benchmark
+    public JwtService.VerifiedToken validateToken() {
+        return jwtService.verify(token);
+    }
+
+    @Benchmark
+    public String generateTokenLegacy() {
+        return legacyGenerate("bench-user");
+    }
+
+    @Benchmark
+    public boolean validateTokenLegacy() {
+        // extractUserName + isTokenExpired: two full parses, each with a fresh key and parser
+        String user = legacyClaims(legacyToken).getSubject();
+        return user.equals("bench-user") && !legacyClaims(legacyToken).getExpiration().before(new Date());
+    }
+
+    private String legacyGenerate(String username) {
+        return Jwts.builder()
+                .subject(username)
+                .issuedAt(new Date(System.currentTimeMillis()))
+                .expiration(new Date(System.currentTimeMillis() + 1000 * 60 * 30))
+                .signWith(legacyKey(), Jwts.SIG.HS256)
+                .compact();
+    }
+
+    private Claims legacyClaims(String token) {
+        return Jwts.parser()
+                .verifyWith(legacyKey())
+                .build()
+                .parseSignedClaims(token)
+                .getPayload();
+    }
+
+    private SecretKey legacyKey() {
+        return Keys.hmacShaKeyFor(Decoders.BASE64.decode(legacySecret));
+    }
+}
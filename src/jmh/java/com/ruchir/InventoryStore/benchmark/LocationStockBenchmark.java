@@ -0,0 +1,87 @@
+package com.ruchir.InventoryStore.benchmark;
+
+import com.ruchir.InventoryStore.InventoryStoreApplication;
+import com.ruchir.InventoryStore.Service.ProductService;
+import com.ruchir.InventoryStore.model.LocationStock;
+import com.ruchir.InventoryStore.model.Product;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.ThreadParams;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.support.GenericApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+// Decrements of one hot product spread over 1/4/16 locations (thread i always works at location
+// i % locations): each call locks only its location's row, so contention drops as locations are
+// added. locations=1 is the old single-row situation. The product total is rolled up in the
+// background as usual. Statements sleep dbLatencyMs like in ThreadingModeBenchmark: on plain H2
+// a row lock is held for microseconds, so there is nothing to contend for.
+//   mvn -Pbenchmark test-compile exec:exec -Djmh.args="LocationStockBenchmark"
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+public class LocationStockBenchmark {
+
+    @Param({"1", "4", "16"})
+    public int locations;
+
+    @Param({"10"})
+    public long dbLatencyMs;
+
+    private ConfigurableApplicationContext context;
+    private ProductService service;
+    private Long productId;
+
+    @State(Scope.Thread)
+    public static class Site {
+        String location;
+
+        @Setup(Level.Trial)
+        public void pick(LocationStockBenchmark benchmark, ThreadParams thread) {
+            location = "site-" + (thread.getThreadIndex() % benchmark.locations);
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void start() {
+        long latency = dbLatencyMs;
+        context = new SpringApplicationBuilder(InventoryStoreApplication.class)
+                .initializers(ctx -> ((GenericApplicationContext) ctx).registerBean("simulatedDbLatency",
+                        BeanPostProcessor.class, () -> new ThreadingModeBenchmark.SimulatedLatency(latency)))
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.hikari.maximum-pool-size=16",
+                        "--logging.level.root=WARN");
+        service = context.getBean(ProductService.class);
+        productId = service.createProduct(Product.builder()
+                .name("Multi-site SKU")
+                .stockQuantity(0)
+                .lowStockThreshold(0)
+                .build()).getId();
+        for (int i = 0; i < locations; i++) {
+            service.adjustLocationStock(productId, "site-" + i, Integer.MAX_VALUE / 32);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    @Threads(16)
+    public LocationStock decrease_16threads(Site site) {
+        return service.adjustLocationStock(productId, site.location, -1);
+    }
+
+    @Benchmark
+    @Threads(64)
+    public LocationStock decrease_64threads(Site site) {
+        return service.adjustLocationStock(productId, site.location, -1);
+    }
+}
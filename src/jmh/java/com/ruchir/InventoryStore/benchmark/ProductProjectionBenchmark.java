@@ -0,0 +1,95 @@
+package com.ruchir.InventoryStore.benchmark;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.ruchir.InventoryStore.dto.ProductFields;
+import com.ruchir.InventoryStore.model.Product;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// A 10k-row GET /api/products response: full Product entities vs. the ?fields= rows a handheld
+// asks for (maps, as ProductProjectionsImpl returns them), as JSON, Smile and CBOR. Prints the
+// response size of each combination once per trial; the score is serialization time.
+//   mvn -Pbenchmark test-compile exec:exec -Djmh.args="ProductProjectionBenchmark"
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProductProjectionBenchmark {
+
+    private static final int ROWS = 10_000;
+
+    @Param({"json", "smile", "cbor"})
+    public String format;
+
+    // "all" = the full entity
+    @Param({"all", "name,stockQuantity"})
+    public String fields;
+
+    private ObjectWriter writer;
+    private List<?> rows;
+
+    @Setup
+    public void setUp() throws IOException {
+        JsonFactory factory = switch (format) {
+            case "smile" -> new SmileFactory();
+            case "cbor" -> new CBORFactory();
+            default -> new JsonFactory();
+        };
+        writer = Jackson2ObjectMapperBuilder.json().factory(factory).build().writerFor(new TypeReference<List<?>>() { });
+        List<Product> products = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            products.add(Product.builder()
+                    .id((long) i + 1)
+                    .name("Stainless hex bolt M" + (i % 30 + 2))
+                    .description("Pack of 50, DIN 933, A2 stainless steel, fully threaded")
+                    .stockQuantity(100 + i % 900)
+                    .lowStockThreshold(20)
+                    .imageUrl("/api/products/images/" + Long.toHexString(i * 0x9E3779B97F4A7C15L) + ".jpg")
+                    .version((long) i % 7)
+                    .build());
+        }
+        if ("all".equals(fields)) {
+            rows = products;
+        } else {
+            ProductFields selected = ProductFields.parse(fields);
+            List<Map<String, Object>> projected = new ArrayList<>(ROWS);
+            products.forEach(product -> projected.add(selected.of(product)));
+            rows = projected;
+        }
+        System.out.printf("%n%s, fields=%s: %,d bytes for %,d rows%n", format, fields, serialize(), ROWS);
+    }
+
+    @Benchmark
+    public long serialize() throws IOException {
+        CountingStream out = new CountingStream();
+        writer.writeValue(out, rows);
+        return out.count;
+    }
+
+    private static final class CountingStream extends OutputStream {
+        long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.ruchir.InventoryStore.benchmark;
+
+import com.ruchir.InventoryStore.Service.ProductTextIndex;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// GET /api/products/search over 1M synthetic products: ProductTextIndex (ranked, first page of 20)
+// against what the pickers did before, filtering the full catalog list for every query word
+// (lower-cased up front, so the scan is measured at its best; downloading the catalog isn't counted).
+// Queries: two common words, a rare word, and a short prefix typed in a picker.
+//   mvn -Pbenchmark test-compile exec:exec -Djmh.args="ProductSearchBenchmark"
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class ProductSearchBenchmark {
+
+    private static final String[] ADJECTIVES = {"heavy", "compact", "industrial", "premium", "basic", "outdoor",
+            "marine", "precision", "flexible", "insulated", "reinforced", "portable"};
+    private static final String[] MATERIALS = {"steel", "stainless", "brass", "aluminium", "zinc", "nylon",
+            "copper", "rubber", "oak", "pvc"};
+    private static final String[] NOUNS = {"bolt", "washer", "hinge", "bracket", "clamp", "hose", "valve",
+            "cable", "anchor", "spring", "gasket", "fitting", "pulley", "rivet", "screw", "coupling"};
+
+    @Param({"1000000"})
+    public int products;
+
+    @Param({"steel bolt", "vexilor", "stai"})
+    public String query;
+
+    private ProductTextIndex index;
+    private String[] names;
+    private String[] descriptions;
+    private long nextId;
+
+    @Setup(Level.Trial)
+    public void build() {
+        Random random = new Random(42);
+        String[] vocabulary = vocabulary(random, 20_000);
+        vocabulary[19_000] = "vexilor"; // in the long tail: about 60 of 1M products
+        index = new ProductTextIndex(64);
+        names = new String[products];
+        descriptions = new String[products];
+        long started = System.nanoTime();
+        for (int i = 0; i < products; i++) {
+            String name = pick(random, ADJECTIVES) + " " + pick(random, MATERIALS) + " " + pick(random, NOUNS)
+                    + " M" + (2 + random.nextInt(30));
+            StringBuilder description = new StringBuilder();
+            for (int w = 8 + random.nextInt(8); w > 0; w--) {
+                description.append(vocabulary[zipf(random, vocabulary.length)]).append(' ');
+            }
+            index.put(i + 1, name, description.toString());
+            names[i] = name.toLowerCase(Locale.ROOT);
+            descriptions[i] = description.toString().toLowerCase(Locale.ROOT);
+        }
+        nextId = products + 1;
+        System.out.printf("%nIndexed %d products in %d ms%n", products, (System.nanoTime() - started) / 1_000_000);
+    }
+
+    @Benchmark
+    public long[] index_firstPage() {
+        return index.search(query, 0, 20).ids();
+    }
+
+    @Benchmark
+    public List<Integer> clientFilter() {
+        String[] words = query.toLowerCase(Locale.ROOT).split(" ");
+        List<Integer> matches = new ArrayList<>();
+        for (int i = 0; i < names.length; i++) {
+            boolean all = true;
+            for (String word : words) {
+                if (!names[i].contains(word) && !descriptions[i].contains(word)) {
+                    all = false;
+                    break;
+                }
+            }
+            if (all) {
+                matches.add(i);
+            }
+        }
+        return matches;
+    }
+
+    // Cost of keeping the index in sync: one product re-indexed after an edit
+    @Benchmark
+    public void index_put() {
+        long id = nextId++;
+        index.put(id, "compact brass hinge M8", "replacement hinge for outdoor cabinets");
+        index.remove(id);
+    }
+
+    private static String pick(Random random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    // Word frequencies fall off roughly like natural text: a few very common words, a long tail
+    private static int zipf(Random random, int size) {
+        return (int) Math.min(size - 1, Math.floor(Math.exp(random.nextDouble() * Math.log(size))) - 1);
+    }
+
+    private static String[] vocabulary(Random random, int size) {
+        String[] syllables = {"ka", "lo", "mi", "ter", "ra", "on", "vel", "dra", "si", "po", "ne", "tu", "gar", "ix", "bel"};
+        String[] words = new String[size];
+        for (int i = 0; i < size; i++) {
+            StringBuilder word = new StringBuilder();
+            for (int s = 2 + random.nextInt(3); s > 0; s--) {
+                word.append(syllables[random.nextInt(syllables.length)]);
+            }
+            words[i] = word.append(i).toString();
+        }
+        return words;
+    }
+}
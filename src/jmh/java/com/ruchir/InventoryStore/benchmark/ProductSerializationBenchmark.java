@@ -0,0 +1,101 @@
+package com.ruchir.InventoryStore.benchmark;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.ruchir.InventoryStore.model.Product;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Jackson cost of Product lists as the API returns them, with an ObjectMapper configured the way
+// Spring Boot configures the application's:
+//   list    - a JSON array (GET /api/products pages, /low-stock, /search)
+//   ndjson  - one value per line through a single generator, as GET /api/products/export writes
+//   read    - parsing the array back (clients, bulk tooling)
+// Output goes to a discarding stream, so only serialization is measured. -prof gc shows bytes/op.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProductSerializationBenchmark {
+
+    @Param({"1", "100", "10000"})
+    public int size;
+
+    private ObjectMapper mapper;
+    private ObjectWriter listWriter;
+    private ObjectWriter elementWriter;
+    private ObjectReader listReader;
+    private List<Product> products;
+    private byte[] json;
+
+    @Setup
+    public void setUp() throws IOException {
+        mapper = Jackson2ObjectMapperBuilder.json().build();
+        listWriter = mapper.writerFor(new TypeReference<List<Product>>() { });
+        elementWriter = mapper.writerFor(Product.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        listReader = mapper.readerFor(new TypeReference<List<Product>>() { });
+        products = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            products.add(Product.builder()
+                    .id((long) i + 1)
+                    .name("Stainless hex bolt M" + (i % 30 + 2))
+                    .description("Pack of 50, DIN 933, A2 stainless steel, fully threaded")
+                    .stockQuantity(100 + i % 900)
+                    .lowStockThreshold(20)
+                    .imageUrl("/api/products/images/" + Long.toHexString(i * 0x9E3779B97F4A7C15L) + ".jpg")
+                    .version((long) i % 7)
+                    .build());
+        }
+        json = listWriter.writeValueAsBytes(products);
+    }
+
+    @Benchmark
+    public long list() throws IOException {
+        CountingStream out = new CountingStream();
+        listWriter.writeValue(out, products);
+        return out.count;
+    }
+
+    @Benchmark
+    public long ndjson() throws IOException {
+        CountingStream out = new CountingStream();
+        try (JsonGenerator generator = mapper.getFactory().createGenerator(out)) {
+            for (Product product : products) {
+                elementWriter.writeValue(generator, product);
+                generator.writeRaw('\n');
+            }
+        }
+        return out.count;
+    }
+
+    @Benchmark
+    public List<Product> read() throws IOException {
+        return listReader.readValue(json);
+    }
+
+    private static final class CountingStream extends OutputStream {
+        long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
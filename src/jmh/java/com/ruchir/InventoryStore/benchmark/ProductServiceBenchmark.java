@@ -0,0 +1,96 @@
+package com.ruchir.InventoryStore.benchmark;
+
+import com.ruchir.InventoryStore.InventoryStoreApplication;
+import com.ruchir.InventoryStore.Service.ProductService;
+import com.ruchir.InventoryStore.dto.StockMovement;
+import com.ruchir.InventoryStore.dto.StockMovementMode;
+import com.ruchir.InventoryStore.dto.StockMovementResponse;
+import com.ruchir.InventoryStore.model.Product;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// ProductServiceImpl stock paths spread over a catalog of `products` rows (little contention,
+// unlike StockEngineBenchmark's single hot product), with the conditional-UPDATE path and the
+// legacy read-modify-write path (inventory.stock.atomic-updates=false). Includes a cached read
+// for reference. In-memory H2 from src/test/resources, so this tracks CPU/ORM overhead per call
+// rather than database latency.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class ProductServiceBenchmark {
+
+    @Param({"true", "false"})
+    public boolean atomicUpdates;
+
+    @Param({"1000"})
+    public int products;
+
+    private ConfigurableApplicationContext context;
+    private ProductService service;
+    private long firstId;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = new SpringApplicationBuilder(InventoryStoreApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties("logging.level.root=WARN")
+                .run("--inventory.stock.atomic-updates=" + atomicUpdates);
+        service = context.getBean(ProductService.class);
+        for (int i = 0; i < products; i++) {
+            long id = service.createProduct(Product.builder()
+                    .name("Bench SKU " + i)
+                    .description("Benchmark product")
+                    .stockQuantity(Integer.MAX_VALUE / 2)
+                    .lowStockThreshold(10)
+                    .build()).getId();
+            if (i == 0) {
+                firstId = id;
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    public Product increaseStock() {
+        return service.increaseStock(randomId(), 1);
+    }
+
+    @Benchmark
+    public Product decreaseStock() {
+        return service.decreaseStock(randomId(), 1);
+    }
+
+    // 20 lines over distinct products in one transaction
+    @Benchmark
+    public StockMovementResponse stockMovements_batch20() {
+        List<StockMovement> movements = new ArrayList<>(20);
+        long start = randomId();
+        for (int i = 0; i < 20; i++) {
+            movements.add(new StockMovement(firstId + (start - firstId + i) % products, i % 2 == 0 ? 5 : -5));
+        }
+        return service.applyStockMovements(movements, StockMovementMode.ALL_OR_NOTHING);
+    }
+
+    @Benchmark
+    public Product getProduct_cached() {
+        return service.getProduct(firstId);
+    }
+
+    private long randomId() {
+        return firstId + ThreadLocalRandom.current().nextInt(products);
+    }
+}
@@ -0,0 +1,64 @@
+package com.ruchir.InventoryStore.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ruchir.InventoryStore.Config.RateLimitFilter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Per-request cost of RateLimitFilter for an authenticated GET that is let through, with the
+// filter off (baseline: request/response objects and the OncePerRequestFilter bookkeeping) and on.
+// users = distinct bucket keys the requests are spread over (1 = one hot bucket).
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RateLimitFilterBenchmark {
+
+    @Param({"false", "true"})
+    public boolean enabled;
+
+    @Param({"1", "10000"})
+    public int users;
+
+    private RateLimitFilter filter;
+    private Authentication[] principals;
+    private final FilterChain chain = (request, response) -> { };
+
+    @State(Scope.Thread)
+    public static class Caller {
+        int next;
+    }
+
+    @Setup
+    public void setUp() {
+        // Limits high enough that every request passes: this measures the check, not rejections
+        filter = new RateLimitFilter(enabled, 1_000_000_000, 1_000_000_000, 1_000_000_000, 1_000_000_000,
+                1_000_000_000, 1_000_000_000, 100_000, new ObjectMapper(), new SimpleMeterRegistry());
+        principals = new Authentication[users];
+        for (int i = 0; i < users; i++) {
+            principals[i] = new UsernamePasswordAuthenticationToken("user-" + i, null, List.of());
+        }
+    }
+
+    @Benchmark
+    public int authenticatedRead(Caller caller) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/products");
+        request.setServletPath("/api/products");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        SecurityContextHolder.getContext().setAuthentication(principals[caller.next++ % users]);
+        filter.doFilter(request, response, chain);
+        SecurityContextHolder.clearContext();
+        return response.getStatus();
+    }
+}
@@ -0,0 +1,73 @@
+package com.ruchir.InventoryStore.benchmark;
+
+import com.ruchir.InventoryStore.InventoryStoreApplication;
+import com.ruchir.InventoryStore.Service.ProductService;
+import com.ruchir.InventoryStore.model.Product;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+// Decrement throughput on one hot product: JPA engine (one conditional UPDATE per call)
+// vs. the in-memory ledger engine (striped lock + journal append, batched write-behind).
+// Runs against the in-memory H2 database from src/test/resources/application.properties,
+// so absolute JPA numbers are optimistic compared to PostgreSQL over the network.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class StockEngineBenchmark {
+
+    @Param({"jpa", "ledger"})
+    public String engine;
+
+    private ConfigurableApplicationContext context;
+    private ProductService service;
+    private Long productId;
+
+    @Setup(Level.Trial)
+    public void start() throws Exception {
+        context = new SpringApplicationBuilder(InventoryStoreApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "inventory.stock.engine=" + engine,
+                        "inventory.stock.ledger.journal-dir=" + Files.createTempDirectory("ledger-bench"),
+                        "spring.datasource.hikari.maximum-pool-size=16",
+                        "logging.level.root=WARN")
+                .run();
+        service = context.getBean(ProductService.class);
+        productId = service.createProduct(Product.builder()
+                .name("Hot SKU")
+                .stockQuantity(Integer.MAX_VALUE / 2)
+                .lowStockThreshold(0)
+                .build()).getId();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public int decrement_1thread() {
+        return service.adjustStock(productId, -1);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public int decrement_8threads() {
+        return service.adjustStock(productId, -1);
+    }
+
+    @Benchmark
+    @Threads(64)
+    public int decrement_64threads() {
+        return service.adjustStock(productId, -1);
+    }
+}
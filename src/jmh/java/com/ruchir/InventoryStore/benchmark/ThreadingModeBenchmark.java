@@ -0,0 +1,175 @@
+package com.ruchir.InventoryStore.benchmark;
+
+import com.ruchir.InventoryStore.InventoryStoreApplication;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.support.GenericApplicationContext;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+// Load test: platform-thread Tomcat vs. the "virtual" profile, over real HTTP on loopback.
+// Each statement sleeps dbLatencyMs to stand in for a PostgreSQL round trip (H2 alone answers
+// in microseconds, so nothing would ever block). Two client groups run at once:
+//   db     - GET /api/products?limit=20, one query per request, bound by the Hikari pool
+//   cached - GET /api/products/{id}, served from the product cache without touching the DB
+// With platform threads the cached requests queue behind Tomcat threads parked on Hikari; in
+// virtual mode only the db requests wait. Tomcat's pool is cut to 32 threads (and Hikari to 8
+// in both modes) so saturation is reachable from a single machine.
+//
+// Reports throughput and p50/p99 per group:
+//   mvn -Pbenchmark test-compile exec:exec -Djmh.args="ThreadingModeBenchmark -p dbLatencyMs=20"
+// Against a real PostgreSQL instead of H2 + simulated latency:
+//   -Djmh.args="ThreadingModeBenchmark -p dbLatencyMs=0 -jvmArgsAppend -Dspring.datasource.url=jdbc:postgresql://..."
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class ThreadingModeBenchmark {
+
+    @Param({"platform", "virtual"})
+    public String mode;
+
+    @Param({"20"})
+    public long dbLatencyMs;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private String baseUrl;
+    private String token;
+    private long productId;
+
+    @Setup(Level.Trial)
+    public void start() throws Exception {
+        long latency = dbLatencyMs;
+        SpringApplicationBuilder app = new SpringApplicationBuilder(InventoryStoreApplication.class)
+                .initializers(ctx -> ((GenericApplicationContext) ctx).registerBean(
+                        "simulatedDbLatency", BeanPostProcessor.class, () -> new SimulatedLatency(latency)))
+                .properties("logging.level.root=WARN");
+        if ("virtual".equals(mode)) {
+            app.profiles("virtual");
+        }
+        context = app.run("--server.port=0",
+                        "--server.tomcat.threads.max=32",
+                        "--spring.datasource.hikari.maximum-pool-size=8",
+                        "--spring.datasource.hikari.connection-timeout=30000",
+                        "--inventory.rate-limit.enabled=false"); // one user drives all the load
+        baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+        send(post("/api/auth/signup?username=bench&password=bench"));
+        token = send(post("/api/auth/login?username=bench&password=bench")).body();
+        String created = send(authorized("/api/products")
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        "{\"name\":\"Bench SKU\",\"stockQuantity\":100,\"lowStockThreshold\":1}"))).body();
+        productId = Long.parseLong(created.replaceAll(".*\"id\":(\\d+).*", "$1"));
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(48)
+    public int db() throws Exception {
+        return send(authorized("/api/products?limit=20").GET()).statusCode();
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(16)
+    public int cached() throws Exception {
+        return send(authorized("/api/products/" + productId).GET()).statusCode();
+    }
+
+    private HttpResponse<String> send(HttpRequest.Builder request) throws Exception {
+        HttpResponse<String> response = client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() >= 400) {
+            throw new IllegalStateException("HTTP " + response.statusCode() + ": " + response.body());
+        }
+        return response;
+    }
+
+    private HttpRequest.Builder authorized(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Authorization", "Bearer " + token);
+    }
+
+    private HttpRequest.Builder post(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .POST(HttpRequest.BodyPublishers.noBody());
+    }
+
+    // Wraps the DataSource so every executed statement first sleeps for the simulated round trip
+    static class SimulatedLatency implements BeanPostProcessor {
+
+        private final long latencyMs;
+
+        SimulatedLatency(long latencyMs) {
+            this.latencyMs = latencyMs;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (latencyMs <= 0 || !(bean instanceof DataSource dataSource)) {
+                return bean;
+            }
+            return proxy(DataSource.class, dataSource, (target, method, args) -> {
+                Object result = invoke(method, target, args);
+                return result instanceof Connection connection
+                        ? proxy(Connection.class, connection, this::onConnection)
+                        : result;
+            });
+        }
+
+        private Object onConnection(Object target, Method method, Object[] args) throws Throwable {
+            Object result = invoke(method, target, args);
+            if (result instanceof Statement statement) {
+                Class<? extends Statement> type = method.getReturnType().asSubclass(Statement.class);
+                return proxy(type, statement, (t, m, a) -> {
+                    if (m.getName().startsWith("execute")) {
+                        Thread.sleep(latencyMs);
+                    }
+                    return invoke(m, t, a);
+                });
+            }
+            return result;
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <T> T proxy(Class<T> type, Object target, TargetHandler handler) {
+            InvocationHandler h = (p, method, args) -> handler.invoke(target, method, args);
+            return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, h);
+        }
+
+        private static Object invoke(Method method, Object target, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        @FunctionalInterface
+        interface TargetHandler {
+            Object invoke(Object target, Method method, Object[] args) throws Throwable;
+        }
+    }
+}
@@ -1,27 +1,51 @@
 package com.ruchir.InventoryStore.Config;
 
+import com.ruchir.InventoryStore.Service.AuthenticatedPrincipalCache;
 import com.ruchir.InventoryStore.Service.JwtService;
 import com.ruchir.InventoryStore.Service.CustomUserDetailsService;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.CredentialsContainer;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.concurrent.TimeUnit;
 
+// Metrics: inventory.jwt.verify{outcome=valid|expired|invalid} times token parsing + signature
+// check on principal-cache misses; user lookups are timed by CustomUserDetailsService.
 @Component
-@RequiredArgsConstructor
 public class JwtFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
     private final CustomUserDetailsService userDetailsService;
+    private final AuthenticatedPrincipalCache principalCache;
+    private final Timer verifyValid;
+    private final Timer verifyExpired;
+    private final Timer verifyInvalid;
+
+    public JwtFilter(JwtService jwtService,
+                     CustomUserDetailsService userDetailsService,
+                     AuthenticatedPrincipalCache principalCache,
+                     MeterRegistry meterRegistry) {
+        this.jwtService = jwtService;
+        this.userDetailsService = userDetailsService;
+        this.principalCache = principalCache;
+        this.verifyValid = verifyTimer("valid", meterRegistry);
+        this.verifyExpired = verifyTimer("expired", meterRegistry);
+        this.verifyInvalid = verifyTimer("invalid", meterRegistry);
+    }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -37,18 +61,13 @@ public class JwtFilter extends OncePerRequestFilter {
         }
 
         String authHeader = request.getHeader("Authorization");
-        String token = null;
-        String username = null;
-
-        if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            token = authHeader.substring(7);
-            username = jwtService.extractUserName(token);
-        }
 
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+        if (authHeader != null && authHeader.startsWith("Bearer ")
+                && SecurityContextHolder.getContext().getAuthentication() == null) {
+            String token = authHeader.substring(7);
+            UserDetails userDetails = resolvePrincipal(token);
 
-            if (jwtService.validateToken(token, userDetails)) {
+            if (userDetails != null) {
                 UsernamePasswordAuthenticationToken authToken =
                         new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
                 authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
@@ -58,4 +77,45 @@ public class JwtFilter extends OncePerRequestFilter {
 
         filterChain.doFilter(request, response);
     }
+
+    // Cache hit: no JWT parse, no DB. Miss: parse the token once (signature + expiry), load the user, cache it.
+    private UserDetails resolvePrincipal(String token) {
+        UserDetails cached = principalCache.get(token);
+        if (cached != null) {
+            return cached;
+        }
+        try {
+            JwtService.VerifiedToken verified = verify(token);
+            UserDetails userDetails = userDetailsService.loadUserByUsername(verified.subject());
+            if (userDetails instanceof CredentialsContainer credentials) {
+                credentials.eraseCredentials(); // the password hash isn't needed past this point
+            }
+            principalCache.put(token, userDetails, verified.expiresAt());
+            return userDetails;
+        } catch (JwtException | IllegalArgumentException | UsernameNotFoundException e) {
+            return null; // invalid/expired token or unknown user -> request stays unauthenticated
+        }
+    }
+
+    private JwtService.VerifiedToken verify(String token) {
+        long start = System.nanoTime();
+        Timer timer = verifyInvalid;
+        try {
+            JwtService.VerifiedToken verified = jwtService.verify(token);
+            timer = verifyValid;
+            return verified;
+        } catch (ExpiredJwtException e) {
+            timer = verifyExpired;
+            throw e;
+        } finally {
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private static Timer verifyTimer(String outcome, MeterRegistry meterRegistry) {
+        return Timer.builder("inventory.jwt.verify")
+                .description("JWT parse + signature/expiry validation on principal cache misses")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
 }
@@ -0,0 +1,35 @@
+package com.ruchir.InventoryStore.Config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+public class PersistenceConfig {
+
+    // Per-request statement counts (StatementCountFilter) and a log line for each query slower than
+    // the threshold (logger org.hibernate.SQL_SLOW), so slow queries and lock waits show up in production
+    @Bean
+    public HibernatePropertiesCustomizer statementMonitoringCustomizer(
+            @Value("${inventory.jpa.slow-query-threshold:500ms}") Duration slowQueryThreshold) {
+        return properties -> {
+            properties.putIfAbsent(AvailableSettings.STATEMENT_INSPECTOR, new StatementCounter());
+            properties.putIfAbsent(AvailableSettings.LOG_SLOW_QUERY, slowQueryThreshold.toMillis());
+        };
+    }
+
+    // JDBC batching + ordered writes so bulk stock movements go out as a few batched
+    // UPDATEs in primary-key order. Values set through spring.jpa.properties win.
+    @Bean
+    public HibernatePropertiesCustomizer jdbcBatchingCustomizer(@Value("${inventory.jdbc.batch-size:50}") int batchSize) {
+        return properties -> {
+            properties.putIfAbsent(AvailableSettings.STATEMENT_BATCH_SIZE, batchSize);
+            properties.putIfAbsent(AvailableSettings.ORDER_UPDATES, true);
+            properties.putIfAbsent(AvailableSettings.ORDER_INSERTS, true);
+        };
+    }
+}
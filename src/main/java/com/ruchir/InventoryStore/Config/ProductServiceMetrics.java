@@ -0,0 +1,73 @@
+package com.ruchir.InventoryStore.Config;
+
+import com.ruchir.InventoryStore.Exceptions.InvalidStockOperationException;
+import com.ruchir.InventoryStore.Exceptions.PayloadTooLargeException;
+import com.ruchir.InventoryStore.Exceptions.PreconditionFailedException;
+import com.ruchir.InventoryStore.Exceptions.ResourceNotFoundException;
+import com.ruchir.InventoryStore.Exceptions.TooManyRequestsException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+
+// inventory.product.operation{operation, outcome}: latency and count of every ProductService call.
+// outcome = ok | insufficient_stock | threshold_violation | invalid_request | not_found | conflict
+// | rejected (429) | error. Only the outermost call is recorded, so the ledger engine delegating to
+// ProductServiceImpl isn't counted twice.
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class ProductServiceMetrics {
+
+    private static final ThreadLocal<Boolean> RECORDING = new ThreadLocal<>();
+
+    private final MeterRegistry meterRegistry;
+
+    @Around("execution(public * com.ruchir.InventoryStore.Service.ProductService+.*(..))")
+    public Object time(ProceedingJoinPoint call) throws Throwable {
+        if (RECORDING.get() != null) {
+            return call.proceed();
+        }
+        RECORDING.set(Boolean.TRUE);
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "ok";
+        try {
+            return call.proceed();
+        } catch (Throwable e) {
+            outcome = outcome(e);
+            throw e;
+        } finally {
+            RECORDING.remove();
+            sample.stop(Timer.builder("inventory.product.operation")
+                    .description("ProductService calls by operation and outcome")
+                    .tag("operation", call.getSignature().getName())
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+        }
+    }
+
+    private static String outcome(Throwable e) {
+        if (e instanceof InvalidStockOperationException invalid) {
+            return invalid.getReason().name().toLowerCase(Locale.ROOT);
+        }
+        if (e instanceof ResourceNotFoundException) {
+            return "not_found";
+        }
+        if (e instanceof PreconditionFailedException || e instanceof OptimisticLockingFailureException) {
+            return "conflict";
+        }
+        if (e instanceof TooManyRequestsException) {
+            return "rejected";
+        }
+        if (e instanceof PayloadTooLargeException) {
+            return "invalid_request";
+        }
+        return "error";
+    }
+}
@@ -0,0 +1,119 @@
+package com.ruchir.InventoryStore.Config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Admission control right after JwtFilter: one token bucket per user and route class, so a client
+// looping on one endpoint gets 429 + Retry-After before it takes a database connection.
+//  - login:  /api/auth/**, keyed by client address (there is no user yet)
+//  - reads:  GET/HEAD
+//  - writes: everything else (stock changes, create, update, delete, uploads)
+// Requests without a user are keyed by client address as well.
+// Metrics: inventory.ratelimit.rejected{route}, inventory.ratelimit.buckets{route}.
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final boolean enabled;
+    private final Route login;
+    private final Route reads;
+    private final Route writes;
+    private final ObjectMapper objectMapper;
+
+    public RateLimitFilter(@Value("${inventory.rate-limit.enabled:true}") boolean enabled,
+                           @Value("${inventory.rate-limit.login.rate:10}") int loginRate,
+                           @Value("${inventory.rate-limit.login.burst:20}") int loginBurst,
+                           @Value("${inventory.rate-limit.reads.rate:100}") int readRate,
+                           @Value("${inventory.rate-limit.reads.burst:200}") int readBurst,
+                           @Value("${inventory.rate-limit.writes.rate:50}") int writeRate,
+                           @Value("${inventory.rate-limit.writes.burst:100}") int writeBurst,
+                           @Value("${inventory.rate-limit.max-buckets:100000}") long maxBuckets,
+                           ObjectMapper objectMapper,
+                           MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.login = new Route("login", new RateLimiter(loginRate, loginBurst, maxBuckets), meterRegistry);
+        this.reads = new Route("reads", new RateLimiter(readRate, readBurst, maxBuckets), meterRegistry);
+        this.writes = new Route("writes", new RateLimiter(writeRate, writeBurst, maxBuckets), meterRegistry);
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        Route route = route(request);
+        Authentication user = SecurityContextHolder.getContext().getAuthentication();
+        String key = route == login || user == null ? request.getRemoteAddr() : user.getName();
+
+        long waitNanos = route.limiter.tryAcquire(key);
+        if (waitNanos > 0) {
+            route.rejected.increment();
+            reject(response, Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1)));
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private Route route(HttpServletRequest request) {
+        if (request.getServletPath().startsWith("/api/auth/")) {
+            return login;
+        }
+        String method = request.getMethod();
+        return "GET".equals(method) || "HEAD".equals(method) ? reads : writes;
+    }
+
+    // Same body as GlobalExceptionHandler's TooManyRequestsException answer; that handler isn't
+    // reached from a security filter
+    private void reject(HttpServletResponse response, long retryAfterSeconds) throws IOException {
+        Map<String, Object> body = new HashMap<>();
+        body.put("timestamp", Instant.now().toString());
+        body.put("status", 429);
+        body.put("error", "Too Many Requests");
+        body.put("message", "Rate limit exceeded, retry after " + retryAfterSeconds + "s");
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), body);
+    }
+
+    private static final class Route {
+        private final RateLimiter limiter;
+        private final Counter rejected;
+
+        Route(String name, RateLimiter limiter, MeterRegistry meterRegistry) {
+            this.limiter = limiter;
+            this.rejected = Counter.builder("inventory.ratelimit.rejected")
+                    .description("Requests answered 429 by the rate limiter")
+                    .tag("route", name)
+                    .register(meterRegistry);
+            Gauge.builder("inventory.ratelimit.buckets", limiter, RateLimiter::size)
+                    .description("Token buckets currently kept")
+                    .tag("route", name)
+                    .register(meterRegistry);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.ruchir.InventoryStore.Config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+// Token bucket per key (user or client address), `ratePerSecond` refill and up to `burst` requests
+// at once. Kept as one number per key, the time the bucket will be full again (GCRA): a request
+// moves it one interval forward with a CAS, no locks and no refill thread.
+// At most `maxKeys` buckets (about 100 bytes each); past that the least used are evicted, which at
+// worst hands an idle client a full bucket again. No time-based expiry: it would read the clock
+// on every lookup, and a bucket idle for burst/rate seconds is indistinguishable from a new one.
+public class RateLimiter {
+
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final LongSupplier clock;
+    private final Cache<String, AtomicLong> buckets;
+
+    public RateLimiter(int ratePerSecond, int burst, long maxKeys) {
+        this(ratePerSecond, burst, maxKeys, System::nanoTime);
+    }
+
+    RateLimiter(int ratePerSecond, int burst, long maxKeys, LongSupplier clock) {
+        if (ratePerSecond < 1 || burst < 1) {
+            throw new IllegalArgumentException("rate and burst must be at least 1");
+        }
+        this.intervalNanos = TimeUnit.SECONDS.toNanos(1) / ratePerSecond;
+        this.burstNanos = intervalNanos * burst;
+        this.clock = clock;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .build();
+    }
+
+    // 0 if the request may run, otherwise nanoseconds until it would be allowed
+    public long tryAcquire(String key) {
+        AtomicLong fullAt = buckets.get(key, k -> new AtomicLong(Long.MIN_VALUE));
+        while (true) {
+            long now = clock.getAsLong();
+            long current = fullAt.get();
+            long next = Math.max(current, now) + intervalNanos;
+            long wait = next - now - burstNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    public long size() {
+        return buckets.estimatedSize();
+    }
+}
@@ -0,0 +1,30 @@
+package com.ruchir.InventoryStore.Config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+// Counts the SQL statements Hibernate prepares on the current thread while a count is open
+// (see StatementCountFilter). A JDBC batch is prepared once and counts once; JdbcTemplate
+// statements don't go through Hibernate and aren't counted.
+public class StatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<int[]> COUNT = new ThreadLocal<>();
+
+    static void open() {
+        COUNT.set(new int[1]);
+    }
+
+    static int close() {
+        int[] count = COUNT.get();
+        COUNT.remove();
+        return count == null ? 0 : count[0];
+    }
+
+    @Override
+    public String inspect(String sql) {
+        int[] count = COUNT.get();
+        if (count != null) {
+            count[0]++;
+        }
+        return sql;
+    }
+}
@@ -1,26 +1,61 @@
 package com.ruchir.InventoryStore.Controller;
 
 import com.ruchir.InventoryStore.Exceptions.InvalidStockOperationException;
+import com.ruchir.InventoryStore.Exceptions.PreconditionFailedException;
+import com.ruchir.InventoryStore.Exceptions.ResourceNotFoundException;
+import com.ruchir.InventoryStore.dto.ProductChanges;
+import com.ruchir.InventoryStore.dto.ProductFields;
+import com.ruchir.InventoryStore.dto.ProductImportFormat;
+import com.ruchir.InventoryStore.dto.ProductImportReport;
+import com.ruchir.InventoryStore.dto.ProductPatch;
+import com.ruchir.InventoryStore.dto.ProductSearchPage;
+import com.ruchir.InventoryStore.dto.StockMovement;
+import com.ruchir.InventoryStore.dto.StockMovementMode;
+import com.ruchir.InventoryStore.dto.StockMovementResponse;
+import com.ruchir.InventoryStore.model.LocationStock;
 import com.ruchir.InventoryStore.model.Product;
+import com.ruchir.InventoryStore.model.StockReservation;
+import com.ruchir.InventoryStore.Service.CatalogVersion;
+import com.ruchir.InventoryStore.Service.ImageStorageService;
+import com.ruchir.InventoryStore.Service.ProductImporter;
 import com.ruchir.InventoryStore.Service.ProductService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import lombok.RequiredArgsConstructor;
-import org.springframework.core.io.Resource;
-import org.springframework.core.io.UrlResource;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.time.Duration;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
 
 @RestController
 @RequestMapping("/api/products")
 @RequiredArgsConstructor
 public class ProductController {
 
+    private static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
+
     private final ProductService service;
+    private final ImageStorageService imageStorage;
+    private final ProductImporter importer;
+    private final ImageResponseWriter imageResponseWriter;
+    private final ObjectMapper objectMapper;
+    private final CatalogVersion catalogVersion;
 
     @PostMapping
     public ResponseEntity<Product> create(@RequestBody Product product) {
@@ -33,19 +68,123 @@ public class ProductController {
         return ResponseEntity.ok(service.createProductWithImage(product, file));
     }
 
+    // Bulk onboarding: the body (text/csv with a header row, or application/x-ndjson) is parsed as it
+    // arrives and inserted in batches; answers with the counts and the rejected rows
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    public ResponseEntity<ProductImportReport> importProducts(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                                              InputStream body) {
+        ProductImportFormat format = MediaType.parseMediaType(contentType).isCompatibleWith(TEXT_CSV)
+                ? ProductImportFormat.CSV : ProductImportFormat.NDJSON;
+        return ResponseEntity.ok(importer.importProducts(body, format));
+    }
+
+    // ETag = product version; send it back as If-Match on PUT/PATCH to get a 412 instead of
+    // overwriting someone else's change
+    // ?fields=name,stockQuantity returns only those attributes (plus id). The single product still
+    // comes from the product cache, so the fieldset only trims the response.
+    // Vary: Accept on this and the list (304s included): the same URL and ETag serve JSON, Smile or CBOR
     @GetMapping("/{id}")
-    public ResponseEntity<Product> get(@PathVariable Long id) {
-        return ResponseEntity.ok(service.getProduct(id));
+    public ResponseEntity<Object> get(@PathVariable Long id, @RequestParam(required = false) String fields) {
+        ProductFields selected = ProductFields.parse(fields);
+        Product product = service.getProduct(id);
+        return ResponseEntity.ok()
+                .eTag(String.valueOf(product.getVersion()))
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(selected == null ? product : selected.of(product));
     }
 
+    // Keyset pagination: pass the X-Next-Cursor value back as ?after= until an empty page comes back.
+    // With ?fields= only the selected columns are read from the database.
+    // Weak ETag = catalog version: a poll with a current If-None-Match gets 304 before any query.
     @GetMapping
-    public ResponseEntity<List<Product>> getAll() {
-        return ResponseEntity.ok(service.getAllProducts());
+    public ResponseEntity<List<?>> getAll(@RequestParam(required = false) Long after,
+                                          @RequestParam(defaultValue = "100") int limit,
+                                          @RequestParam(required = false) String fields,
+                                          ServletWebRequest webRequest) {
+        webRequest.getResponse().addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        if (webRequest.checkNotModified(catalogETag())) {
+            return null; // 304, ETag already set
+        }
+        ProductFields selected = ProductFields.parse(fields);
+        List<?> page;
+        Long next;
+        if (selected == null) {
+            List<Product> products = service.getProductsPage(after, limit);
+            next = products.isEmpty() ? null : products.get(products.size() - 1).getId();
+            page = products;
+        } else {
+            List<Map<String, Object>> rows = service.getProductsPage(after, limit, selected);
+            next = rows.isEmpty() ? null : (Long) rows.get(rows.size() - 1).get("id");
+            page = rows;
+        }
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (next != null) {
+            String nextUrl = ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("after", next)
+                    .toUriString();
+            response.header("X-Next-Cursor", String.valueOf(next))
+                    .header(HttpHeaders.LINK, "<" + nextUrl + ">; rel=\"next\"");
+        }
+        return response.body(page);
+    }
+
+    // Ranked full-text search over name + description; the last word also matches as a prefix.
+    // X-Total-Count = all matches; follow Link rel="next" for the next page.
+    @GetMapping("/search")
+    public ResponseEntity<List<Product>> search(@RequestParam String q,
+                                                @RequestParam(defaultValue = "0") int offset,
+                                                @RequestParam(defaultValue = "20") int limit) {
+        ProductSearchPage page = service.searchProducts(q, offset, limit);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().header("X-Total-Count", String.valueOf(page.getTotal()));
+        int nextOffset = offset + page.getProducts().size();
+        if (!page.getProducts().isEmpty() && nextOffset < page.getTotal()) {
+            String nextUrl = ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("offset", nextOffset)
+                    .toUriString();
+            response.header(HttpHeaders.LINK, "<" + nextUrl + ">; rel=\"next\"");
+        }
+        return response.body(page.getProducts());
+    }
+
+    // Whole catalog as newline-delimited JSON, streamed row by row from a DB cursor
+    @GetMapping(value = "/export", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> export() {
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                int[] rows = {0};
+                service.exportProducts(product -> {
+                    try {
+                        writer.writeValue(generator, product);
+                        generator.writeRaw('\n');
+                        if (++rows[0] % 500 == 0) {
+                            generator.flush();
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<Product> update(@PathVariable Long id, @RequestBody Product product) {
-        return ResponseEntity.ok(service.updateProduct(id, product));
+    public ResponseEntity<Product> update(@PathVariable Long id, @RequestBody Product product,
+                                          @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Product saved = service.updateProduct(id, product, expectedVersion(ifMatch));
+        return ResponseEntity.ok().eTag(String.valueOf(saved.getVersion())).body(saved);
+    }
+
+    // Only the fields present in the body are written, in one UPDATE; answers 204 with the new ETag
+    @PatchMapping("/{id}")
+    public ResponseEntity<Void> patch(@PathVariable Long id, @RequestBody ProductPatch patch,
+                                      @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        long version = service.patchProduct(id, patch, expectedVersion(ifMatch));
+        return ResponseEntity.noContent().eTag(String.valueOf(version)).build();
     }
 
     @DeleteMapping("/{id}")
@@ -65,23 +204,122 @@ public class ProductController {
         return ResponseEntity.ok(service.decreaseStock(id, qty));
     }
 
+    // Per-location stock; the product's stockQuantity is their total (plus unassigned stock) and
+    // follows location adjustments within inventory.stock.locations.rollup-interval
+    @GetMapping("/{id}/locations")
+    public ResponseEntity<List<LocationStock>> locations(@PathVariable Long id) {
+        return ResponseEntity.ok(service.getLocationStock(id));
+    }
+
+    @PostMapping("/{id}/locations/{location}/increase")
+    public ResponseEntity<LocationStock> increaseAtLocation(@PathVariable Long id, @PathVariable String location,
+                                                            @RequestParam int qty) {
+        if (qty <= 0) throw new InvalidStockOperationException("Quantity must be positive");
+        return ResponseEntity.ok(service.adjustLocationStock(id, location, qty));
+    }
+
+    @PostMapping("/{id}/locations/{location}/decrease")
+    public ResponseEntity<LocationStock> decreaseAtLocation(@PathVariable Long id, @PathVariable String location,
+                                                            @RequestParam int qty) {
+        if (qty <= 0) throw new InvalidStockOperationException("Quantity must be positive");
+        return ResponseEntity.ok(service.adjustLocationStock(id, location, -qty));
+    }
+
+    // Checkout hold: qty leaves available stock now and stock itself on confirm; released on
+    // DELETE or automatically once ttlSeconds (default inventory.reservations.ttl) have passed
+    @PostMapping("/{id}/reservations")
+    public ResponseEntity<StockReservation> reserve(@PathVariable Long id, @RequestParam int qty,
+                                                    @RequestParam(required = false) Long ttlSeconds) {
+        StockReservation reservation = service.reserveStock(id, qty, ttlSeconds == null ? null : Duration.ofSeconds(ttlSeconds));
+        return ResponseEntity.created(ServletUriComponentsBuilder.fromCurrentContextPath()
+                        .path("/api/products/reservations/{reservationId}")
+                        .buildAndExpand(reservation.getId())
+                        .toUri())
+                .body(reservation);
+    }
+
+    @GetMapping("/reservations/{reservationId}")
+    public ResponseEntity<StockReservation> getReservation(@PathVariable Long reservationId) {
+        return ResponseEntity.ok(service.getReservation(reservationId));
+    }
+
+    @PostMapping("/reservations/{reservationId}/confirm")
+    public ResponseEntity<Product> confirmReservation(@PathVariable Long reservationId) {
+        return ResponseEntity.ok(service.confirmReservation(reservationId));
+    }
+
+    @DeleteMapping("/reservations/{reservationId}")
+    public ResponseEntity<Void> releaseReservation(@PathVariable Long reservationId) {
+        service.releaseReservation(reservationId);
+        return ResponseEntity.noContent().build();
+    }
+
+    @PostMapping("/stock-movements")
+    public ResponseEntity<StockMovementResponse> stockMovements(@RequestBody List<StockMovement> movements,
+                                                                @RequestParam(defaultValue = "ALL_OR_NOTHING") StockMovementMode mode) {
+        StockMovementResponse response = service.applyStockMovements(movements, mode);
+        if (mode == StockMovementMode.ALL_OR_NOTHING && response.getRejected() > 0) {
+            return ResponseEntity.badRequest().body(response);
+        }
+        return ResponseEntity.ok(response);
+    }
 
     @GetMapping("/low-stock")
-    public ResponseEntity<List<Product>> lowStock() {
+    public ResponseEntity<List<Product>> lowStock(ServletWebRequest webRequest) {
+        if (webRequest.checkNotModified(catalogETag())) {
+            return null;
+        }
         return ResponseEntity.ok(service.getLowStockProducts());
     }
 
-    @GetMapping("/images/{filename}")
-    public ResponseEntity<Resource> getImage(@PathVariable String filename) throws Exception {
-        Path filePath = Paths.get("uploads/images/").resolve(filename);
-        Resource resource = new UrlResource(filePath.toUri());
+    // Products created, changed or deleted after ?since=<catalog version> (the ETag value of a list
+    // response, or the version of the previous delta). reset=true: reload the full list instead.
+    @GetMapping("/changes")
+    public ResponseEntity<ProductChanges> changes(@RequestParam String since) {
+        String version = catalogVersion.current();
+        Set<Long> ids = catalogVersion.changedSince(since);
+        if (ids == null) {
+            return ResponseEntity.ok(new ProductChanges(version, true, List.of(), List.of()));
+        }
+        List<Product> products = service.getProducts(ids);
+        Set<Long> deleted = new TreeSet<>(ids);
+        products.forEach(product -> deleted.remove(product.getId()));
+        return ResponseEntity.ok(new ProductChanges(version, false, products, List.copyOf(deleted)));
+    }
+
+    private String catalogETag() {
+        return "W/\"" + catalogVersion.current() + "\"";
+    }
 
-        if (!resource.exists() || !resource.isReadable()) {
-            throw new RuntimeException("Image not found: " + filename);
+    // If-Match takes a single strong ETag ("3") or *; weak tags and lists can never match
+    private static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
         }
+        String tag = ifMatch.trim();
+        if (tag.length() > 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            try {
+                return Long.parseLong(tag.substring(1, tag.length() - 1));
+            } catch (NumberFormatException ignored) {
+                // not one of our tags
+            }
+        }
+        throw new PreconditionFailedException("If-Match does not match the current product version");
+    }
 
-        return ResponseEntity.ok()
-                .contentType(MediaType.IMAGE_JPEG)
-                .body(resource);
+    // Stored images are content-addressed, so the file name doubles as a strong ETag
+    @GetMapping("/images/{filename}")
+    public void getImage(@PathVariable String filename,
+                         @RequestParam(defaultValue = "false") boolean thumbnail,
+                         ServletWebRequest webRequest) throws IOException {
+        Path filePath = imageStorage.resolve(filename, thumbnail);
+        if (filePath == null) {
+            throw new ResourceNotFoundException("Image not found: " + filename);
+        }
+        boolean servedThumbnail = imageStorage.isThumbnail(filePath);
+        String etag = "\"" + (servedThumbnail ? "thumb-" : "") + filePath.getFileName() + "\"";
+        // A thumbnail request answered with the original (thumbnail not generated yet) must be revalidated
+        boolean immutable = !thumbnail || servedThumbnail;
+        imageResponseWriter.write(filePath, etag, immutable, webRequest);
     }
 }
@@ -0,0 +1,91 @@
+package com.ruchir.InventoryStore.Controller;
+
+import com.ruchir.InventoryStore.Exceptions.InvalidStockOperationException;
+import com.ruchir.InventoryStore.Service.StockEventRelay;
+import com.ruchir.InventoryStore.model.StockEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.List;
+
+// Change feed of stock events. Offsets are event sequences: pass the last one you processed as
+// `after` (or Last-Event-ID for streams) to resume without gaps or duplicates.
+@RestController
+@RequestMapping("/api/stock-events")
+@RequiredArgsConstructor
+public class StockEventController {
+
+    static final String NEXT_OFFSET_HEADER = "X-Next-Offset";
+
+    private final StockEventRelay relay;
+
+    @Value("${inventory.stock-events.max-wait:60s}")
+    private Duration maxWait;
+
+    @Value("${inventory.stock-events.max-page-size:1000}")
+    private int maxPageSize;
+
+    // Long poll: answers as soon as events after `after` exist, or with an empty list after `wait` seconds
+    @GetMapping
+    public DeferredResult<ResponseEntity<List<StockEvent>>> poll(@RequestParam(defaultValue = "0") long after,
+                                                                 @RequestParam(defaultValue = "100") int limit,
+                                                                 @RequestParam(defaultValue = "30") long wait) {
+        if (limit <= 0) {
+            throw new InvalidStockOperationException("limit must be positive");
+        }
+        int pageSize = Math.min(limit, maxPageSize);
+        long timeoutMillis = Math.min(Duration.ofSeconds(Math.max(0, wait)).toMillis(), maxWait.toMillis());
+        DeferredResult<ResponseEntity<List<StockEvent>>> result =
+                new DeferredResult<>(Math.max(1, timeoutMillis), () -> page(List.of(), after));
+
+        StockEventRelay.Subscription subscription = new StockEventRelay.Subscription(after) {
+            @Override
+            protected boolean send(List<StockEvent> events) {
+                List<StockEvent> page = events.size() > pageSize ? events.subList(0, pageSize) : events;
+                result.setResult(page(page, after));
+                return false; // one answer per poll
+            }
+        };
+        result.onCompletion(() -> relay.unsubscribe(subscription));
+        relay.subscribe(subscription, true);
+        return result;
+    }
+
+    // Server-Sent Events: event id = sequence, so a reconnecting EventSource resumes by itself
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId,
+                             @RequestParam(required = false) Long after) {
+        long from = lastEventId != null ? lastEventId : (after != null ? after : 0L);
+        SseEmitter emitter = new SseEmitter();
+        StockEventRelay.Subscription subscription = new StockEventRelay.Subscription(from) {
+            @Override
+            protected boolean send(List<StockEvent> events) throws Exception {
+                for (StockEvent event : events) {
+                    emitter.send(SseEmitter.event()
+                            .id(String.valueOf(event.getSequence()))
+                            .name("stock")
+                            .data(event, MediaType.APPLICATION_JSON));
+                }
+                return true;
+            }
+        };
+        emitter.onCompletion(() -> relay.unsubscribe(subscription));
+        emitter.onTimeout(() -> relay.unsubscribe(subscription));
+        emitter.onError(e -> relay.unsubscribe(subscription));
+        relay.subscribe(subscription, false);
+        return emitter;
+    }
+
+    private static ResponseEntity<List<StockEvent>> page(List<StockEvent> events, long after) {
+        long next = events.isEmpty() ? after : events.get(events.size() - 1).getSequence();
+        return ResponseEntity.ok()
+                .header(NEXT_OFFSET_HEADER, String.valueOf(next))
+                .body(events);
+    }
+}
@@ -5,7 +5,22 @@ import org.springframework.web.bind.annotation.ResponseStatus;
 
 @ResponseStatus(HttpStatus.BAD_REQUEST)
 public class InvalidStockOperationException extends RuntimeException {
+
+    // Why the operation was refused; used as the outcome tag on operation metrics
+    public enum Reason { INSUFFICIENT_STOCK, THRESHOLD_VIOLATION, INVALID_REQUEST }
+
+    private final Reason reason;
+
     public InvalidStockOperationException(String message) {
+        this(Reason.INVALID_REQUEST, message);
+    }
+
+    public InvalidStockOperationException(Reason reason, String message) {
         super(message);
+        this.reason = reason;
+    }
+
+    public Reason getReason() {
+        return reason;
     }
 }
@@ -0,0 +1,83 @@
+package com.ruchir.InventoryStore.Service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Date;
+
+// Short-lived cache of verified JWT -> principal, so repeat requests with the same token
+// skip both the JWT parse and the user lookup. Keyed by SHA-256 of the token (raw tokens
+// are never kept). An entry lives until the token expires or the TTL passes, whichever
+// is first, so role changes or deleted users are picked up within one TTL.
+@Component
+public class AuthenticatedPrincipalCache {
+
+    private record Entry(UserDetails user, long expiresAtMillis) {}
+
+    private final boolean enabled;
+    private final long ttlNanos;
+    private final Cache<String, Entry> cache;
+
+    public AuthenticatedPrincipalCache(@Value("${inventory.security.principal-cache.enabled:true}") boolean enabled,
+                                       @Value("${inventory.security.principal-cache.max-size:10000}") long maxSize,
+                                       @Value("${inventory.security.principal-cache.ttl:60s}") Duration ttl) {
+        this.enabled = enabled;
+        this.ttlNanos = ttl.toNanos();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<String, Entry>() {
+                    @Override
+                    public long expireAfterCreate(String key, Entry entry, long currentTime) {
+                        long untilTokenExpiry = Duration.ofMillis(entry.expiresAtMillis() - System.currentTimeMillis()).toNanos();
+                        return Math.max(0, Math.min(ttlNanos, untilTokenExpiry));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, Entry entry, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, entry, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, Entry entry, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
+    // Returns the cached principal for this token, or null on a miss / expired token
+    public UserDetails get(String token) {
+        if (!enabled) {
+            return null;
+        }
+        Entry entry = cache.getIfPresent(hash(token));
+        if (entry == null || entry.expiresAtMillis() <= System.currentTimeMillis()) {
+            return null;
+        }
+        return entry.user();
+    }
+
+    public void put(String token, UserDetails user, Date expiresAt) {
+        if (enabled && expiresAt != null) {
+            cache.put(hash(token), new Entry(user, expiresAt.getTime()));
+        }
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.ruchir.InventoryStore.Service;
+
+import com.ruchir.InventoryStore.dao.StockEventRepository;
+import com.ruchir.InventoryStore.event.ProductChangedEvent;
+import com.ruchir.InventoryStore.model.StockEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+// Version of the whole catalog as this instance serves it: bumped after every committed product
+// change (ProductServiceImpl's events, ledger adjustments and flushes, location rollups), after
+// imports, and when the stock event relay shows changes committed by other instances. Tags look
+// like "<epoch>-<n>"; the epoch is this instance's start time, so a tag from another instance or an
+// earlier run never matches and a client can't be answered 304 for data it hasn't seen.
+// The last `change-log-size` changes are kept (product ids) for "changed since <tag>" requests.
+// The relay also feeds back this instance's own changes; a (product, version) already counted from
+// either source isn't counted again, so one change moves the version once.
+@Component
+public class CatalogVersion {
+
+    private final StockEventRepository stockEvents;
+    private final StockEventRelay relay;
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final long[] changeLog;
+    private long version;
+    private long oldest; // changes after this version are all in the log
+    private final Map<Long, Long> countedVersions; // product -> highest version counted, recent products only
+
+    public CatalogVersion(StockEventRepository stockEvents,
+                          StockEventRelay relay,
+                          @Value("${inventory.catalog.change-log-size:10000}") int changeLogSize) {
+        this.stockEvents = stockEvents;
+        this.relay = relay;
+        this.changeLog = new long[changeLogSize];
+        this.countedVersions = new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Long> eldest) {
+                return size() > changeLogSize; // forgetting one at worst counts a change twice
+            }
+        };
+    }
+
+    // Changes committed elsewhere reach this instance through the relay's feed of the outbox
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        relay.subscribe(new StockEventRelay.Subscription(stockEvents.findMaxSequence()) {
+            @Override
+            protected boolean send(List<StockEvent> events) {
+                events.forEach(event -> changed(event.getProductId(), event.getVersion()));
+                return true;
+            }
+        }, false);
+    }
+
+    // Runs after the other AFTER_COMMIT listeners (default order 0): a reader that sees the new
+    // version also sees caches and indexes that already dropped the old state
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        changed(event.productId(), event.version());
+    }
+
+    // Read before the data it tags, so the tag is never newer than the response
+    public synchronized String current() {
+        return epoch + "-" + version;
+    }
+
+    public synchronized void changed(Long productId) {
+        version++;
+        changeLog[(int) (version % changeLog.length)] = productId;
+        oldest = Math.max(oldest, version - changeLog.length);
+    }
+
+    // A change seen by the local listener and again through the relay; null version = always count
+    synchronized void changed(Long productId, Long version) {
+        if (version != null) {
+            Long counted = countedVersions.get(productId);
+            if (counted != null && counted >= version) {
+                return;
+            }
+            countedVersions.put(productId, version);
+        }
+        changed(productId);
+    }
+
+    // Too many or unknown changes at once (bulk import): everything before now is "reset"
+    public synchronized void changedAll() {
+        version++;
+        oldest = version;
+    }
+
+    // Products changed after `tag`, or null when the tag is from another epoch or older than the
+    // log: the client has to reload the list
+    public synchronized Set<Long> changedSince(String tag) {
+        long since = parse(tag);
+        if (since < oldest || since > version) {
+            return null;
+        }
+        Set<Long> ids = new TreeSet<>();
+        for (long v = since + 1; v <= version; v++) {
+            ids.add(changeLog[(int) (v % changeLog.length)]);
+        }
+        return ids;
+    }
+
+    private long parse(String tag) {
+        String value = tag == null ? "" : tag.replace("W/", "").replace("\"", "");
+        if (!value.startsWith(epoch + "-")) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(value.substring(epoch.length() + 1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
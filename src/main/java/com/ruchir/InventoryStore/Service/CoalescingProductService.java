@@ -0,0 +1,351 @@
+package com.ruchir.InventoryStore.Service;
+
+import com.ruchir.InventoryStore.Exceptions.InvalidStockOperationException;
+import com.ruchir.InventoryStore.Exceptions.ResourceNotFoundException;
+import com.ruchir.InventoryStore.dao.LocationStockRepository;
+import com.ruchir.InventoryStore.dao.ProductRepository;
+import com.ruchir.InventoryStore.dto.ProductFields;
+import com.ruchir.InventoryStore.dto.ProductPatch;
+import com.ruchir.InventoryStore.dto.ProductSearchPage;
+import com.ruchir.InventoryStore.dto.StockMovement;
+import com.ruchir.InventoryStore.dto.StockMovementMode;
+import com.ruchir.InventoryStore.dto.StockMovementResponse;
+import com.ruchir.InventoryStore.model.LocationStock;
+import com.ruchir.InventoryStore.model.Product;
+import com.ruchir.InventoryStore.model.StockReservation;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+// ProductService for inventory.stock.coalescing.enabled=true on the JPA engine: concurrent
+// decreaseStock calls for the same product are combined into one conditional UPDATE, so a hot
+// product costs one row lock per batch instead of one per request.
+//  - the first caller for an idle product runs a batch at once (after the optional window);
+//    callers arriving meanwhile queue up and the oldest of them runs the next batch, so a
+//    thread never executes more than one batch and nothing waits on a timer under load
+//  - a batch first tries the summed quantity; if that doesn't fit, the callers are admitted in
+//    arrival order against the current available stock, threshold and units outside locations,
+//    the rest get the same rejection they would have got alone, and only the admitted sum is written
+// Each caller gets its own result: the quantity right after its own decrement, or its own error.
+// Everything else is delegated to the JPA implementation. Not used with the ledger engine,
+// which has no row contention to begin with.
+@Service
+@Primary
+@ConditionalOnExpression("${inventory.stock.coalescing.enabled:false} and '${inventory.stock.engine:jpa}' != 'ledger'")
+public class CoalescingProductService implements ProductService {
+
+    // A batch whose admitted sum is still refused (stock moved between the read and the UPDATE)
+    // is re-planned this many times before its callers fall back to one UPDATE each
+    private static final int PLAN_ATTEMPTS = 3;
+
+    private static final class Request {
+        final int qty;
+        final CompletableFuture<Product> result = new CompletableFuture<>();
+        final CompletableFuture<Void> promoted = new CompletableFuture<>();
+
+        Request(int qty) {
+            this.qty = qty;
+        }
+    }
+
+    // Queue of one product; `busy` while some thread is running (or about to run) a batch
+    private static final class Lane {
+        final ReentrantLock lock = new ReentrantLock();
+        final List<Request> waiting = new ArrayList<>();
+        boolean busy;
+    }
+
+    private final ProductServiceImpl delegate;
+    private final ProductRepository repo;
+    private final LocationStockRepository locationStock;
+    private final long windowNanos;
+    private final int maxBatch;
+    private final Map<Long, Lane> lanes = new ConcurrentHashMap<>();
+
+    public CoalescingProductService(ProductServiceImpl delegate,
+                                    ProductRepository repo,
+                                    LocationStockRepository locationStock,
+                                    @Value("${inventory.stock.coalescing.window:0ms}") Duration window,
+                                    @Value("${inventory.stock.coalescing.max-batch:256}") int maxBatch) {
+        this.delegate = delegate;
+        this.repo = repo;
+        this.locationStock = locationStock;
+        this.windowNanos = window.toNanos();
+        this.maxBatch = maxBatch;
+    }
+
+    @Override
+    public Product createProduct(Product product) {
+        return delegate.createProduct(product);
+    }
+
+    @Override
+    public Product createProductWithImage(Product product, MultipartFile file) {
+        return delegate.createProductWithImage(product, file);
+    }
+
+    @Override
+    public Product getProduct(Long id) {
+        return delegate.getProduct(id);
+    }
+
+    @Override
+    public List<Product> getAllProducts() {
+        return delegate.getAllProducts();
+    }
+
+    @Override
+    public List<Product> getProductsPage(Long afterId, int limit) {
+        return delegate.getProductsPage(afterId, limit);
+    }
+
+    @Override
+    public List<Product> getProducts(Collection<Long> ids) {
+        return delegate.getProducts(ids);
+    }
+
+    @Override
+    public List<Map<String, Object>> getProductsPage(Long afterId, int limit, ProductFields fields) {
+        return delegate.getProductsPage(afterId, limit, fields);
+    }
+
+    @Override
+    public void exportProducts(Consumer<Product> sink) {
+        delegate.exportProducts(sink);
+    }
+
+    @Override
+    public ProductSearchPage searchProducts(String query, int offset, int limit) {
+        return delegate.searchProducts(query, offset, limit);
+    }
+
+    @Override
+    public Product updateProduct(Long id, Product product, Long expectedVersion) {
+        return delegate.updateProduct(id, product, expectedVersion);
+    }
+
+    @Override
+    public long patchProduct(Long id, ProductPatch patch, Long expectedVersion) {
+        return delegate.patchProduct(id, patch, expectedVersion);
+    }
+
+    @Override
+    public void deleteProduct(Long id) {
+        delegate.deleteProduct(id);
+    }
+
+    @Override
+    public Product increaseStock(Long id, int qty) {
+        return delegate.increaseStock(id, qty);
+    }
+
+    @Override
+    public Product decreaseStock(Long id, int qty) {
+        if (qty <= 0) {
+            return delegate.decreaseStock(id, qty);
+        }
+        return decrease(id, qty);
+    }
+
+    @Override
+    public int adjustStock(Long id, int delta) {
+        return delegate.adjustStock(id, delta);
+    }
+
+    @Override
+    public StockMovementResponse applyStockMovements(List<StockMovement> movements, StockMovementMode mode) {
+        return delegate.applyStockMovements(movements, mode);
+    }
+
+    @Override
+    public StockReservation reserveStock(Long productId, int qty, Duration ttl) {
+        return delegate.reserveStock(productId, qty, ttl);
+    }
+
+    @Override
+    public StockReservation getReservation(Long reservationId) {
+        return delegate.getReservation(reservationId);
+    }
+
+    @Override
+    public Product confirmReservation(Long reservationId) {
+        return delegate.confirmReservation(reservationId);
+    }
+
+    @Override
+    public void releaseReservation(Long reservationId) {
+        delegate.releaseReservation(reservationId);
+    }
+
+    @Override
+    public int releaseExpiredReservations(int max) {
+        return delegate.releaseExpiredReservations(max);
+    }
+
+    @Override
+    public List<Product> getLowStockProducts() {
+        return delegate.getLowStockProducts();
+    }
+
+    @Override
+    public List<LocationStock> getLocationStock(Long id) {
+        return delegate.getLocationStock(id);
+    }
+
+    @Override
+    public LocationStock adjustLocationStock(Long id, String location, int delta) {
+        return delegate.adjustLocationStock(id, location, delta);
+    }
+
+    // Queues the decrement and waits for its batch; returns the product right after it
+    private Product decrease(Long id, int qty) {
+        Lane lane = lanes.computeIfAbsent(id, key -> new Lane());
+        Request request = new Request(qty);
+        boolean lead;
+        lane.lock.lock();
+        try {
+            lane.waiting.add(request);
+            lead = !lane.busy;
+            lane.busy = true;
+        } finally {
+            lane.lock.unlock();
+        }
+        if (!lead) {
+            CompletableFuture.anyOf(request.result, request.promoted).handle((done, error) -> null).join();
+            lead = !request.result.isDone();
+        }
+        if (lead) {
+            runBatch(id, lane); // this request heads the queue, so the batch includes it
+        }
+        try {
+            return request.result.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    private void runBatch(Long id, Lane lane) {
+        if (windowNanos > 0) {
+            LockSupport.parkNanos(windowNanos); // let more callers join this batch
+        }
+        List<Request> batch;
+        lane.lock.lock();
+        try {
+            int size = Math.min(lane.waiting.size(), maxBatch);
+            batch = new ArrayList<>(lane.waiting.subList(0, size));
+            lane.waiting.subList(0, size).clear();
+        } finally {
+            lane.lock.unlock();
+        }
+        try {
+            apply(id, batch);
+        } catch (RuntimeException e) {
+            batch.forEach(request -> request.result.completeExceptionally(e));
+        } finally {
+            handOff(id, lane);
+        }
+    }
+
+    // The oldest queued caller runs the next batch; an idle lane is dropped from the map
+    private void handOff(Long id, Lane lane) {
+        lane.lock.lock();
+        try {
+            if (lane.waiting.isEmpty()) {
+                lane.busy = false;
+                lanes.remove(id, lane); // a caller still holding this lane just runs its own batch in it
+            } else {
+                lane.waiting.get(0).promoted.complete(null);
+            }
+        } finally {
+            lane.lock.unlock();
+        }
+    }
+
+    private void apply(Long id, List<Request> batch) {
+        if (tryDecrement(id, batch)) {
+            return;
+        }
+        for (int attempt = 0; attempt < PLAN_ATTEMPTS; attempt++) {
+            ProductRepository.StockLevel level = repo.findStockLevelById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("Product not found: " + id));
+            int available = level.getStockQuantity() - level.getReservedQuantity();
+            // Units held by locations can't be taken by a product-level decrease (checkUnassigned)
+            long unassigned = available - assigned(id);
+            List<Request> admitted = new ArrayList<>(batch.size());
+            for (Request request : batch) {
+                InvalidStockOperationException rejection =
+                        StockRules.rejection(available, level.getLowStockThreshold(), -request.qty);
+                if (rejection == null && unassigned < request.qty) {
+                    rejection = ProductServiceImpl.unassignedShortage();
+                }
+                if (rejection == null) {
+                    available -= request.qty;
+                    unassigned -= request.qty;
+                    admitted.add(request);
+                } else {
+                    request.result.completeExceptionally(rejection);
+                }
+            }
+            if (admitted.isEmpty() || tryDecrement(id, admitted)) {
+                return;
+            }
+            batch = admitted;
+        }
+        // Stock keeps moving under us (other writers): one conditional UPDATE per caller
+        for (Request request : batch) {
+            try {
+                request.result.complete(delegate.adjustStockAndGet(id, -request.qty));
+            } catch (RuntimeException e) {
+                request.result.completeExceptionally(e);
+            }
+        }
+    }
+
+    // Located units minus those not yet rolled up into the total, as applyStockMovements counts them
+    private long assigned(Long id) {
+        List<Object[]> rows = locationStock.findAssignedByProductIdIn(List.of(id));
+        return rows.isEmpty() ? 0L : ((Number) rows.get(0)[1]).longValue();
+    }
+
+    // One UPDATE for the whole batch; false (nothing written) if the sum doesn't fit
+    private boolean tryDecrement(Long id, List<Request> batch) {
+        long sum = 0;
+        for (Request request : batch) {
+            sum += request.qty;
+        }
+        if (sum > Integer.MAX_VALUE) {
+            return false;
+        }
+        int total = (int) sum;
+        Product after;
+        try {
+            after = delegate.adjustStockAndGet(id, -total);
+        } catch (InvalidStockOperationException e) {
+            return false;
+        }
+        // Callers are answered as if applied one after another in arrival order; all of them
+        // carry the batch's version, the only one that was ever committed
+        int running = after.getStockQuantity() + total;
+        for (Request request : batch) {
+            running -= request.qty;
+            Product product = after.toBuilder().build();
+            product.setStockQuantity(running);
+            request.result.complete(product);
+        }
+        return true;
+    }
+}
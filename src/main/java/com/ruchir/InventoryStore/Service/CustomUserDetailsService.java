@@ -2,26 +2,61 @@ package com.ruchir.InventoryStore.Service;
 
 import com.ruchir.InventoryStore.dao.UserRepository;
 import com.ruchir.InventoryStore.model.UserEntity;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+// Metrics: inventory.security.user.lookup{outcome=found|not_found}, the user query behind logins
+// and principal-cache misses in JwtFilter
 @Service
-@RequiredArgsConstructor
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserRepository userRepository;
+    private final Timer lookupFound;
+    private final Timer lookupNotFound;
+
+    public CustomUserDetailsService(UserRepository userRepository, MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.lookupFound = lookupTimer("found", meterRegistry);
+        this.lookupNotFound = lookupTimer("not_found", meterRegistry);
+    }
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        UserEntity user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found"));
+        long start = System.nanoTime();
+        Optional<UserEntity> found = userRepository.findByUsername(username);
+        (found.isPresent() ? lookupFound : lookupNotFound).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        UserEntity user = found.orElseThrow(() -> new UsernameNotFoundException("User not found"));
         return User.withUsername(user.getUsername())
                 .password(user.getPassword())
                 .roles(user.getRole())
                 .build();
     }
+
+    // Called by DaoAuthenticationProvider after a successful login whose hash uses an outdated cost
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        userRepository.findByUsername(user.getUsername())
+                .ifPresent(entity -> entity.setPassword(newPassword));
+        return User.withUserDetails(user)
+                .password(newPassword)
+                .build();
+    }
+
+    private static Timer lookupTimer(String outcome, MeterRegistry meterRegistry) {
+        return Timer.builder("inventory.security.user.lookup")
+                .description("User query by username")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
 }
@@ -0,0 +1,139 @@
+package com.ruchir.InventoryStore.Service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.ruchir.InventoryStore.dao.IdempotencyRecordRepository;
+import com.ruchir.InventoryStore.model.IdempotencyRecord;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Responses of requests sent with an Idempotency-Key, replayed when the client retries.
+//  - memory: bounded by bytes, entries expire `ttl` after the response; always on
+//  - table (inventory.idempotency.table.enabled=true): idempotency_record, so retries landing on
+//    another instance are replayed as well and a key being processed elsewhere is seen as running
+// A key is claimed while its first request runs; a request that fails with a 5xx (or is shed)
+// releases it, so the retry executes again.
+@Slf4j
+@Component
+public class IdempotencyStore {
+
+    // What the first request answered; fingerprint = hash of method, path, query and body
+    public record StoredResponse(String fingerprint, int status, String contentType, String location, byte[] body) {
+    }
+
+    private final IdempotencyRecordRepository records;
+    private final boolean tableEnabled;
+    private final Duration ttl;
+    private final Duration claimTimeout;
+    private final Cache<String, StoredResponse> memory;
+    private final Set<String> running = ConcurrentHashMap.newKeySet();
+
+    public IdempotencyStore(IdempotencyRecordRepository records,
+                            MeterRegistry meterRegistry,
+                            @Value("${inventory.idempotency.table.enabled:false}") boolean tableEnabled,
+                            @Value("${inventory.idempotency.ttl:24h}") Duration ttl,
+                            @Value("${inventory.idempotency.claim-timeout:1m}") Duration claimTimeout,
+                            @Value("${inventory.idempotency.max-memory:64MB}") DataSize maxMemory) {
+        this.records = records;
+        this.tableEnabled = tableEnabled;
+        this.ttl = ttl;
+        this.claimTimeout = claimTimeout;
+        this.memory = Caffeine.newBuilder()
+                .maximumWeight(maxMemory.toBytes())
+                .weigher((String key, StoredResponse response) -> 2 * key.length() + response.body().length + 128)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, memory, "idempotency");
+    }
+
+    // The stored response, or null if the key is unknown (or still running)
+    public StoredResponse find(String key) {
+        StoredResponse response = memory.getIfPresent(key);
+        if (response != null || !tableEnabled) {
+            return response;
+        }
+        IdempotencyRecord record = records.findById(key)
+                .filter(r -> r.getStatus() != 0 && r.getExpiresAt().isAfter(Instant.now()))
+                .orElse(null);
+        if (record == null) {
+            return null;
+        }
+        response = new StoredResponse(record.getFingerprint(), record.getStatus(), record.getContentType(),
+                record.getLocation(), record.getBody() == null ? new byte[0] : record.getBody());
+        memory.put(key, response);
+        return response;
+    }
+
+    // true: the caller owns the key and must complete() or release() it
+    public boolean claim(String key, String fingerprint) {
+        if (!running.add(key)) {
+            return false;
+        }
+        if (tableEnabled) {
+            try {
+                Instant now = Instant.now();
+                records.deleteExpired(key, now);
+                if (records.claim(key, fingerprint, now.plus(claimTimeout)) == 0) {
+                    running.remove(key);
+                    return false;
+                }
+            } catch (RuntimeException e) {
+                running.remove(key);
+                throw e;
+            }
+        }
+        return true;
+    }
+
+    // The request has run by now, so a failed write keeps the claim rather than releasing it:
+    // retries here are replayed from memory, other instances answer 409 until claim-timeout
+    public void complete(String key, StoredResponse response) {
+        memory.put(key, response);
+        try {
+            if (tableEnabled) {
+                records.complete(key, response.status(), response.contentType(), response.location(),
+                        response.body(), Instant.now().plus(ttl));
+            }
+        } catch (RuntimeException e) {
+            log.warn("Failed to store the response for idempotency key {}, keeping its claim: {}", key, e.getMessage());
+        } finally {
+            running.remove(key);
+        }
+    }
+
+    public void release(String key) {
+        try {
+            if (tableEnabled) {
+                records.release(key);
+            }
+        } finally {
+            running.remove(key);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.idempotency.sweep-interval:10m}")
+    public void sweep() {
+        if (!tableEnabled) {
+            return;
+        }
+        try {
+            int removed = records.deleteExpired(Instant.now());
+            if (removed > 0) {
+                log.debug("Removed {} expired idempotency records", removed);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Idempotency record sweep failed, will retry: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package com.ruchir.InventoryStore.Service;
+
+import com.ruchir.InventoryStore.Exceptions.PayloadTooLargeException;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.*;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+// Stores product images under content-addressed names (<sha256>.<ext>), so the same supplier
+// image uploaded many times is kept once. The upload is hashed and size-checked while it is
+// copied into a staging directory (same filesystem, never served) and moved into place only when
+// complete; thumbnails are produced afterwards on a small bounded executor.
+@Slf4j
+@Service
+public class ImageStorageService {
+
+    private static final String THUMBNAIL_DIR = "thumbs";
+    private static final String STAGING_DIR = ".incoming";
+    private static final Duration ABANDONED_UPLOAD_AGE = Duration.ofHours(1);
+
+    private final Path imageDir;
+    private final Path stagingDir;
+    private final Path thumbnailDir;
+    private final long maxBytes;
+    private final int thumbnailSize;
+    private final ThreadPoolExecutor thumbnailExecutor;
+
+    public ImageStorageService(@Value("${inventory.images.dir:uploads/images}") String imageDir,
+                               @Value("${inventory.images.max-size:5MB}") DataSize maxSize,
+                               @Value("${inventory.images.thumbnail.size:200}") int thumbnailSize,
+                               @Value("${inventory.images.thumbnail.threads:2}") int thumbnailThreads,
+                               @Value("${inventory.images.thumbnail.queue-capacity:100}") int queueCapacity,
+                               @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) throws IOException {
+        this.imageDir = Paths.get(imageDir).toAbsolutePath().normalize();
+        this.thumbnailDir = this.imageDir.resolve(THUMBNAIL_DIR);
+        this.maxBytes = maxSize.toBytes();
+        this.thumbnailSize = thumbnailSize;
+        this.stagingDir = this.imageDir.resolve(STAGING_DIR);
+        Files.createDirectories(thumbnailDir);
+        Files.createDirectories(stagingDir);
+        deleteAbandonedUploads();
+
+        // The pool size still bounds concurrent decodes in virtual-thread mode (they are memory hungry)
+        ThreadFactory threadFactory = virtualThreads
+                ? Thread.ofVirtual().name("thumbnail-", 1).factory()
+                : Thread.ofPlatform().name("thumbnail-", 1).daemon(true).factory();
+        this.thumbnailExecutor = new ThreadPoolExecutor(
+                thumbnailThreads, thumbnailThreads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                threadFactory,
+                // Queue full: skip, the original is served instead and the next upload of the same image retries
+                (task, executor) -> log.warn("Thumbnail queue full, skipping thumbnail"));
+    }
+
+    // Returns the stored file name. Throws PayloadTooLargeException as soon as the limit is crossed.
+    public String store(MultipartFile file) throws IOException {
+        String extension = extension(file.getOriginalFilename());
+        Path temp = Files.createTempFile(stagingDir, "upload-", ".part");
+        try {
+            MessageDigest sha256 = sha256();
+            try (InputStream in = new DigestInputStream(file.getInputStream(), sha256);
+                 OutputStream out = Files.newOutputStream(temp)) {
+                byte[] buffer = new byte[8192];
+                long total = 0;
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    total += read;
+                    if (total > maxBytes) {
+                        throw new PayloadTooLargeException("Image exceeds " + maxBytes + " bytes");
+                    }
+                    out.write(buffer, 0, read);
+                }
+            }
+
+            String hash = HexFormat.of().formatHex(sha256.digest());
+            String fileName = hash + extension;
+            Path target = imageDir.resolve(fileName);
+            if (!Files.exists(target)) { // otherwise duplicate content: already stored
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            }
+            scheduleThumbnail(target, hash);
+            return fileName;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    // Resolves a stored image (or its thumbnail, falling back to the original until it exists).
+    // Returns null for names that escape the image directory or don't exist; uploads still being
+    // written sit in the staging subdirectory and can't be named here.
+    public Path resolve(String fileName, boolean thumbnail) {
+        Path original = imageDir.resolve(fileName).normalize();
+        if (!original.getParent().equals(imageDir) || !Files.isRegularFile(original)) {
+            return null;
+        }
+        if (thumbnail) {
+            Path thumb = thumbnailDir.resolve(stripExtension(original.getFileName().toString()) + ".jpg");
+            if (Files.isRegularFile(thumb)) {
+                return thumb;
+            }
+        }
+        return original;
+    }
+
+    public boolean isThumbnail(Path path) {
+        return thumbnailDir.equals(path.getParent());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        thumbnailExecutor.shutdown();
+    }
+
+    // Left behind by a crash mid-upload (older versions staged them in the image directory itself).
+    // Only old ones: another instance sharing the directory may be writing the recent ones.
+    private void deleteAbandonedUploads() throws IOException {
+        Instant cutoff = Instant.now().minus(ABANDONED_UPLOAD_AGE);
+        for (Path dir : new Path[]{stagingDir, imageDir}) {
+            try (DirectoryStream<Path> parts = Files.newDirectoryStream(dir, "upload-*.part")) {
+                for (Path part : parts) {
+                    if (Files.getLastModifiedTime(part).toInstant().isBefore(cutoff)) {
+                        Files.deleteIfExists(part);
+                    }
+                }
+            }
+        }
+    }
+
+    private void scheduleThumbnail(Path image, String hash) {
+        Path thumb = thumbnailDir.resolve(hash + ".jpg");
+        if (Files.exists(thumb)) {
+            return;
+        }
+        thumbnailExecutor.execute(() -> {
+            try {
+                BufferedImage source = ImageIO.read(image.toFile());
+                if (source == null || Files.exists(thumb)) {
+                    return; // not a decodable image, or already done
+                }
+                double scale = Math.min(1.0, (double) thumbnailSize / Math.max(source.getWidth(), source.getHeight()));
+                int width = Math.max(1, (int) Math.round(source.getWidth() * scale));
+                int height = Math.max(1, (int) Math.round(source.getHeight() * scale));
+                BufferedImage scaled = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+                Graphics2D g = scaled.createGraphics();
+                try {
+                    g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                    g.drawImage(source, 0, 0, width, height, Color.WHITE, null);
+                } finally {
+                    g.dispose();
+                }
+                Path temp = Files.createTempFile(thumbnailDir, "thumb-", ".part");
+                try {
+                    ImageIO.write(scaled, "jpg", temp.toFile());
+                    Files.move(temp, thumb, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                } finally {
+                    Files.deleteIfExists(temp);
+                }
+            } catch (IOException | RuntimeException e) {
+                log.warn("Thumbnail generation failed for {}: {}", image.getFileName(), e.getMessage());
+            }
+        });
+    }
+
+    private static String extension(String originalName) {
+        if (originalName == null) {
+            return "";
+        }
+        int dot = originalName.lastIndexOf('.');
+        if (dot < 0) {
+            return "";
+        }
+        String ext = originalName.substring(dot + 1).toLowerCase(Locale.ROOT);
+        return ext.matches("[a-z0-9]{1,5}") ? "." + ext : "";
+    }
+
+    private static String stripExtension(String fileName) {
+        int dot = fileName.lastIndexOf('.');
+        return dot < 0 ? fileName : fileName.substring(0, dot);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -1,86 +1,61 @@
 package com.ruchir.InventoryStore.Service;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
-import io.jsonwebtoken.io.Decoders;
-import io.jsonwebtoken.security.Keys;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.KeyGenerator;
 import javax.crypto.SecretKey;
-import java.security.Key;
 import java.security.NoSuchAlgorithmException;
-import java.util.Base64;
 import java.util.Date;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.function.Function;
 
 @Service
 public class JwtService {
 
-    private String secretKey;
+    private static final long TOKEN_VALIDITY_MILLIS = 1000 * 60 * 30;
+
+    // Built once: the key is immutable and JwtParser is thread-safe, so nothing is
+    // decoded or rebuilt per request
+    private final SecretKey key;
+    private final JwtParser parser;
+
+    // Subject and expiry from a single signature verification
+    public record VerifiedToken(String subject, Date expiresAt) {}
 
     public JwtService(){
-        secretKey = generateSecretKey();
+        key = generateSecretKey();
+        parser = Jwts.parser()
+                .verifyWith(key)
+                .build();
     }
 
-    private String generateSecretKey() {
+    private SecretKey generateSecretKey() {
         try {
             KeyGenerator keyGen = KeyGenerator.getInstance("HmacSHA256");
-            SecretKey secretKey = keyGen.generateKey();
-            return Base64.getEncoder().encodeToString(secretKey.getEncoded());
+            return keyGen.generateKey();
         } catch (NoSuchAlgorithmException e) {
             throw new RuntimeException("Error generating secret key", e);
         }
     }
 
     public String generateToken(String username) {
-        Map<String, Object> claims = new HashMap<>();
+        long now = System.currentTimeMillis();
         return Jwts.builder()
-                .setClaims(claims)
-                .setSubject(username)
-                .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + 1000 * 60 * 30))
-                .signWith(getKey(), SignatureAlgorithm.HS256)
+                .subject(username)
+                .issuedAt(new Date(now))
+                .expiration(new Date(now + TOKEN_VALIDITY_MILLIS))
+                .signWith(key, Jwts.SIG.HS256)
                 .compact();
     }
 
-    private Key getKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
-        return Keys.hmacShaKeyFor(keyBytes);
-    }
-
-    public String extractUserName(String token) {
-        return extractClaim(token, Claims::getSubject);
-    }
-
-    private <T> T extractClaim(String token, Function<Claims, T> claimResolver) {
-        final Claims claims = extractAllClaims(token);
-        return claimResolver.apply(claims);
+    // Verifies signature + expiry once; throws JwtException if the token is invalid or expired
+    public VerifiedToken verify(String token) {
+        Claims claims = extractAllClaims(token);
+        return new VerifiedToken(claims.getSubject(), claims.getExpiration());
     }
 
     private Claims extractAllClaims(String token) {
-        // ✅ Updated for JJWT 0.12.x
-        return Jwts.parser()
-                .setSigningKey(getKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-    }
-
-    public boolean validateToken(String token, UserDetails userDetails) {
-        final String userName = extractUserName(token);
-        return (userName.equals(userDetails.getUsername()) && !isTokenExpired(token));
-    }
-
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
-    }
-
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+        return parser.parseSignedClaims(token).getPayload();
     }
 }
@@ -0,0 +1,206 @@
+package com.ruchir.InventoryStore.Service;
+
+import com.ruchir.InventoryStore.Exceptions.InvalidStockOperationException;
+import com.ruchir.InventoryStore.dto.ProductFields;
+import com.ruchir.InventoryStore.dto.ProductPatch;
+import com.ruchir.InventoryStore.dto.ProductSearchPage;
+import com.ruchir.InventoryStore.dto.StockMovement;
+import com.ruchir.InventoryStore.dto.StockMovementMode;
+import com.ruchir.InventoryStore.dto.StockMovementResponse;
+import com.ruchir.InventoryStore.model.LocationStock;
+import com.ruchir.InventoryStore.model.Product;
+import com.ruchir.InventoryStore.model.StockReservation;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+// ProductService for inventory.stock.engine=ledger: stock adjustments go to the in-memory
+// StockLedger (no DB round trip, no row lock), everything else is delegated to the JPA
+// implementation. Reads overlay the live ledger quantity; list views read from the DB and
+// may lag by up to one flush interval for products the ledger hasn't touched.
+@Service
+@Primary
+@ConditionalOnProperty(name = "inventory.stock.engine", havingValue = "ledger")
+@RequiredArgsConstructor
+public class LedgerProductService implements ProductService {
+
+    private final ProductServiceImpl delegate;
+    private final StockLedger ledger;
+    private final CatalogVersion catalogVersion;
+
+    @Override
+    public Product createProduct(Product product) {
+        return delegate.createProduct(product);
+    }
+
+    @Override
+    public Product createProductWithImage(Product product, MultipartFile file) {
+        return delegate.createProductWithImage(product, file);
+    }
+
+    @Override
+    public Product getProduct(Long id) {
+        return overlay(delegate.getProduct(id));
+    }
+
+    @Override
+    public List<Product> getAllProducts() {
+        return delegate.getAllProducts().stream().map(this::overlay).toList();
+    }
+
+    @Override
+    public List<Product> getProductsPage(Long afterId, int limit) {
+        return delegate.getProductsPage(afterId, limit).stream().map(this::overlay).toList();
+    }
+
+    @Override
+    public List<Product> getProducts(Collection<Long> ids) {
+        return delegate.getProducts(ids).stream().map(this::overlay).toList();
+    }
+
+    @Override
+    public List<Map<String, Object>> getProductsPage(Long afterId, int limit, ProductFields fields) {
+        List<Map<String, Object>> page = delegate.getProductsPage(afterId, limit, fields);
+        if (fields.contains("stockQuantity")) {
+            for (Map<String, Object> row : page) {
+                Integer live = ledger.quantity((Long) row.get("id"));
+                if (live != null) {
+                    row.put("stockQuantity", live);
+                }
+            }
+        }
+        return page;
+    }
+
+    @Override
+    public void exportProducts(Consumer<Product> sink) {
+        delegate.exportProducts(product -> sink.accept(overlay(product)));
+    }
+
+    @Override
+    public ProductSearchPage searchProducts(String query, int offset, int limit) {
+        ProductSearchPage page = delegate.searchProducts(query, offset, limit);
+        page.setProducts(page.getProducts().stream().map(this::overlay).toList());
+        return page;
+    }
+
+    @Override
+    public Product updateProduct(Long id, Product product, Long expectedVersion) {
+        return ledger.exclusive(List.of(id), () -> delegate.updateProduct(id, product, expectedVersion));
+    }
+
+    @Override
+    public long patchProduct(Long id, ProductPatch patch, Long expectedVersion) {
+        return ledger.exclusive(List.of(id), () -> delegate.patchProduct(id, patch, expectedVersion));
+    }
+
+    @Override
+    public void deleteProduct(Long id) {
+        ledger.exclusive(List.of(id), () -> {
+            delegate.deleteProduct(id);
+            return null;
+        });
+    }
+
+    @Override
+    public Product increaseStock(Long id, int qty) {
+        return withQuantity(id, adjust(id, qty));
+    }
+
+    @Override
+    public Product decreaseStock(Long id, int qty) {
+        return withQuantity(id, adjust(id, -qty));
+    }
+
+    @Override
+    public int adjustStock(Long id, int delta) {
+        return adjust(id, delta);
+    }
+
+    @Override
+    public StockMovementResponse applyStockMovements(List<StockMovement> movements, StockMovementMode mode) {
+        List<Long> ids = movements == null ? List.of() : movements.stream()
+                .map(StockMovement::getProductId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+        return ledger.exclusive(ids, () -> delegate.applyStockMovements(movements, mode));
+    }
+
+    // Placing a hold checks the row's available stock, so pending ledger deltas are flushed first;
+    // a confirm changes stock behind the counter. Releases and expiries only loosen the hold and
+    // are picked up by StockLedger from their events.
+    @Override
+    public StockReservation reserveStock(Long productId, int qty, Duration ttl) {
+        return ledger.exclusive(List.of(productId), () -> delegate.reserveStock(productId, qty, ttl));
+    }
+
+    @Override
+    public StockReservation getReservation(Long reservationId) {
+        return delegate.getReservation(reservationId);
+    }
+
+    @Override
+    public Product confirmReservation(Long reservationId) {
+        Long productId = delegate.getReservation(reservationId).getProductId();
+        return ledger.exclusive(List.of(productId), () -> delegate.confirmReservation(reservationId));
+    }
+
+    @Override
+    public void releaseReservation(Long reservationId) {
+        delegate.releaseReservation(reservationId);
+    }
+
+    @Override
+    public int releaseExpiredReservations(int max) {
+        return delegate.releaseExpiredReservations(max);
+    }
+
+    @Override
+    public List<Product> getLowStockProducts() {
+        return delegate.getLowStockProducts().stream().map(this::overlay).toList();
+    }
+
+    @Override
+    public List<LocationStock> getLocationStock(Long id) {
+        return delegate.getLocationStock(id);
+    }
+
+    // The location rollup writes product totals behind the counters, and the ledger already
+    // takes the row lock out of stock adjustments
+    @Override
+    public LocationStock adjustLocationStock(Long id, String location, int delta) {
+        throw new InvalidStockOperationException("Per-location stock is not available with inventory.stock.engine=ledger");
+    }
+
+    // Reads overlay the ledger, so the catalog version moves when the ledger accepts a change, not
+    // only when it is flushed: a conditional GET never gets a 304 for a quantity it hasn't seen
+    private int adjust(Long id, int delta) {
+        int quantity = ledger.adjust(id, delta);
+        catalogVersion.changed(id);
+        return quantity;
+    }
+
+    private Product withQuantity(Long id, int quantity) {
+        Product product = delegate.getProduct(id);
+        product.setStockQuantity(quantity);
+        return product;
+    }
+
+    private Product overlay(Product product) {
+        Integer live = ledger.quantity(product.getId());
+        if (live == null || live == product.getStockQuantity()) {
+            return product;
+        }
+        return product.toBuilder().stockQuantity(live).build();
+    }
+}
@@ -0,0 +1,87 @@
+package com.ruchir.InventoryStore.Service;
+
+import com.ruchir.InventoryStore.dao.LocationStockDeltaRepository;
+import com.ruchir.InventoryStore.dao.ProductRepository;
+import com.ruchir.InventoryStore.event.ProductChangedEvent;
+import com.ruchir.InventoryStore.model.LocationStockDelta;
+import com.ruchir.InventoryStore.model.Product;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Maintains product.stock_quantity as the materialized total of per-location adjustments:
+// pending LocationStockDelta rows are summed per product and applied with one batched UPDATE per
+// batch (ids in order), and the delta rows are deleted in the same transaction, so each delta is
+// counted exactly once even across a crash. Instances can roll up side by side: pending rows are
+// locked while they are applied. A product's total lags its locations by about one interval;
+// the STOCK events published here refresh caches and the low-stock index.
+@Slf4j
+@Component
+public class LocationStockRollup {
+
+    private final LocationStockDeltaRepository deltas;
+    private final ProductRepository repo;
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate tx;
+    private final ApplicationEventPublisher events;
+    private final int batchSize;
+
+    public LocationStockRollup(LocationStockDeltaRepository deltas,
+                               ProductRepository repo,
+                               JdbcTemplate jdbc,
+                               TransactionTemplate tx,
+                               ApplicationEventPublisher events,
+                               @Value("${inventory.stock.locations.rollup-batch-size:1000}") int batchSize) {
+        this.deltas = deltas;
+        this.repo = repo;
+        this.jdbc = jdbc;
+        this.tx = tx;
+        this.events = events;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.stock.locations.rollup-interval:200ms}")
+    public void rollup() {
+        try {
+            Integer applied;
+            do {
+                applied = tx.execute(status -> rollupBatch());
+            } while (applied != null && applied == batchSize);
+        } catch (RuntimeException e) {
+            log.warn("Location stock rollup failed, will retry: {}", e.getMessage());
+        }
+    }
+
+    private int rollupBatch() {
+        List<LocationStockDelta> pending = deltas.findPendingForUpdate(Limit.of(batchSize));
+        if (pending.isEmpty()) {
+            return 0;
+        }
+        Map<Long, Integer> net = new TreeMap<>();
+        for (LocationStockDelta delta : pending) {
+            net.merge(delta.getProductId(), delta.getDelta(), Integer::sum);
+        }
+        net.values().removeIf(delta -> delta == 0); // moves that cancelled out leave the row alone
+        List<Object[]> rows = net.entrySet().stream()
+                .map(e -> new Object[]{e.getValue(), e.getKey()})
+                .toList();
+        jdbc.batchUpdate("UPDATE product SET stock_quantity = stock_quantity + ?, version = version + 1 WHERE id = ?", rows);
+        deltas.deleteAllByIdInBatch(pending.stream().map(LocationStockDelta::getId).toList());
+        // One event (old -> new) per product per batch; outbox rows commit with the new totals
+        for (Product product : repo.findAllById(net.keySet())) {
+            int newQty = product.getStockQuantity();
+            events.publishEvent(new ProductChangedEvent(product.getId(), ProductChangedEvent.ChangeType.STOCK,
+                    newQty - net.get(product.getId()), newQty, product.getVersion()));
+        }
+        return pending.size();
+    }
+}
@@ -0,0 +1,128 @@
+package com.ruchir.InventoryStore.Service;
+
+import com.ruchir.InventoryStore.dao.ProductRepository;
+import com.ruchir.InventoryStore.event.ProductChangedEvent;
+import com.ruchir.InventoryStore.model.Product;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+// In-memory set of low-stock product ids, so /low-stock costs O(result) instead of a catalog scan.
+// Committed stock changes only mark a product dirty; membership of dirty products is decided on
+// the next read from the rows it loads anyway. A product whose event arrives while a read or a
+// rebuild is in flight may be applied from a stale row (after a newer one), so it is marked dirty
+// again when that read or rebuild ends: a wrong entry lasts until the next read at most.
+// A periodic rebuild from a full scan picks up writes made by other instances.
+@Component
+@RequiredArgsConstructor
+public class LowStockIndex {
+
+    private final ProductRepository repo;
+
+    private final Set<Long> lowStockIds = ConcurrentHashMap.newKeySet();
+    private final Set<Long> dirtyIds = ConcurrentHashMap.newKeySet();
+    // One per read or rebuild in flight: the ids that got an event meanwhile
+    private final Set<Touched> inFlight = ConcurrentHashMap.newKeySet();
+    // Not synchronized: the full scan runs on request threads (first read, imports), which would
+    // pin a virtual thread's carrier
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    private volatile boolean seeded;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${inventory.low-stock.rebuild-interval:5m}",
+            fixedDelayString = "${inventory.low-stock.rebuild-interval:5m}")
+    public void rebuild() {
+        rebuildLock.lock();
+        Touched touched = track();
+        try {
+            List<Long> ids = repo.findLowStockIds();
+            lowStockIds.retainAll(new HashSet<>(ids));
+            lowStockIds.addAll(ids);
+            seeded = true;
+        } finally {
+            untrack(touched);
+            rebuildLock.unlock();
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        dirtyIds.add(event.productId());
+        for (Touched touched : inFlight) {
+            touched.ids.add(event.productId());
+        }
+    }
+
+    public List<Product> lowStockProducts() {
+        if (!seeded) {
+            rebuild();
+        }
+        Touched touched = track();
+        try {
+            return load();
+        } finally {
+            untrack(touched);
+        }
+    }
+
+    private List<Product> load() {
+        Set<Long> dirty = new HashSet<>();
+        for (Iterator<Long> it = dirtyIds.iterator(); it.hasNext(); ) {
+            dirty.add(it.next());
+            it.remove();
+        }
+        Set<Long> candidates = new HashSet<>(lowStockIds);
+        candidates.addAll(dirty);
+        if (candidates.isEmpty()) {
+            return List.of();
+        }
+
+        List<Product> result = new ArrayList<>();
+        Set<Long> found = new HashSet<>();
+        for (Product product : repo.findAllById(candidates)) {
+            found.add(product.getId());
+            if (isLowStock(product)) {
+                lowStockIds.add(product.getId());
+                result.add(product);
+            } else {
+                lowStockIds.remove(product.getId());
+            }
+        }
+        candidates.removeAll(found); // deleted products
+        lowStockIds.removeAll(candidates);
+
+        result.sort(Comparator.comparing(Product::getId));
+        return result;
+    }
+
+    // Registered before the query, so a change it doesn't see has its event recorded
+    private Touched track() {
+        Touched touched = new Touched();
+        inFlight.add(touched);
+        return touched;
+    }
+
+    // Changes committed while the query ran may be missing from it, and another read may already
+    // have consumed their marks: check them again on the next read
+    private void untrack(Touched touched) {
+        inFlight.remove(touched);
+        dirtyIds.addAll(touched.ids);
+    }
+
+    private static boolean isLowStock(Product product) {
+        return product.getStockQuantity() <= product.getLowStockThreshold();
+    }
+
+    // Identity equality: the id set changes while it is in `inFlight`
+    private static final class Touched {
+        final Set<Long> ids = ConcurrentHashMap.newKeySet();
+    }
+}
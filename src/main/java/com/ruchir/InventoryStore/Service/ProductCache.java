@@ -0,0 +1,80 @@
+package com.ruchir.InventoryStore.Service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.ruchir.InventoryStore.event.ProductChangedEvent;
+import com.ruchir.InventoryStore.model.Product;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+// Bounded read-through cache in front of ProductRepository lookups by id.
+// Entries are dropped after the mutating transaction commits. Loads are in-flight futures in the
+// cache, so concurrent misses share one query, and an invalidation that lands mid-load removes
+// the future: a stale row can't be re-cached behind the commit.
+// The query runs on the caller's thread, outside Caffeine's per-key lock; blocking inside that
+// lock (a ConcurrentHashMap bin monitor) would pin a virtual thread's carrier.
+// Metrics: cache.gets/puts/evictions{cache=products}.
+@Component
+public class ProductCache {
+
+    private final AsyncCache<Long, Product> cache;
+
+    public ProductCache(@Value("${inventory.cache.products.max-size:10000}") long maxSize,
+                        @Value("${inventory.cache.products.ttl:5m}") Duration ttl,
+                        MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "products");
+    }
+
+    // Returns a copy so callers can't modify the cached instance; null if the loader finds nothing
+    public Product get(Long id, Function<Long, Product> loader) {
+        CompletableFuture<Product> load = new CompletableFuture<>();
+        CompletableFuture<Product> entry = cache.get(id, (key, executor) -> load);
+        if (entry == load) {
+            try {
+                Product loaded = loader.apply(id);
+                load.complete(loaded == null ? null : loaded.toBuilder().build()); // never cache a managed entity
+            } catch (RuntimeException e) {
+                load.completeExceptionally(e); // failed loads aren't cached
+                throw e;
+            }
+        }
+        Product cached;
+        try {
+            cached = entry.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+        return cached == null ? null : cached.toBuilder().build();
+    }
+
+    // Cache-only lookup, never hits the database or waits for a load; null on a miss
+    public Product peek(Long id) {
+        CompletableFuture<Product> entry = cache.getIfPresent(id);
+        boolean loaded = entry != null && entry.isDone() && !entry.isCompletedExceptionally();
+        Product cached = loaded ? entry.join() : null;
+        return cached == null ? null : cached.toBuilder().build();
+    }
+
+    public void invalidate(Long id) {
+        cache.synchronous().invalidate(id);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        invalidate(event.productId());
+    }
+}
@@ -0,0 +1,59 @@
+package com.ruchir.InventoryStore.Service;
+
+import com.ruchir.InventoryStore.dto.ProductImportFormat;
+import com.ruchir.InventoryStore.dto.ProductImportReport;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+
+// Command-line import, run at startup for each --import=<file> (.csv = CSV, anything else NDJSON):
+//   java -jar InventoryStore.jar --spring.main.web-application-type=none --import=catalog.csv
+// Without a web server the process exits when done: status 0, or 1 if a file was malformed.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProductImportRunner implements ApplicationRunner {
+
+    private final ProductImporter importer;
+    private final ConfigurableApplicationContext context;
+
+    @Override
+    public void run(ApplicationArguments args) throws IOException {
+        List<String> files = args.getOptionValues("import");
+        if (files == null || files.isEmpty()) {
+            return;
+        }
+        boolean complete = true;
+        for (String file : files) {
+            Path path = Path.of(file);
+            ProductImportFormat format = file.toLowerCase(Locale.ROOT).endsWith(".csv")
+                    ? ProductImportFormat.CSV : ProductImportFormat.NDJSON;
+            ProductImportReport report;
+            try (InputStream in = Files.newInputStream(path)) {
+                report = importer.importProducts(in, format);
+            }
+            log.info("Imported {}: {} of {} rows in {} ms, {} rejected{}", path, report.getImported(),
+                    report.getProcessed(), report.getElapsedMillis(), report.getRejected(),
+                    report.isComplete() ? "" : " (stopped at malformed input)");
+            report.getRejections().forEach(rejection ->
+                    log.warn("{} row {}: {}", path, rejection.getRow(), rejection.getMessage()));
+            complete &= report.isComplete();
+        }
+        if (!(context instanceof WebServerApplicationContext)) {
+            int status = complete ? 0 : 1;
+            System.exit(SpringApplication.exit(context, () -> status));
+        }
+    }
+}
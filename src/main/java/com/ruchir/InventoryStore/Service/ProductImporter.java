@@ -0,0 +1,287 @@
+package com.ruchir.InventoryStore.Service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.ruchir.InventoryStore.Exceptions.InvalidStockOperationException;
+import com.ruchir.InventoryStore.dto.ProductImportFormat;
+import com.ruchir.InventoryStore.dto.ProductImportRejection;
+import com.ruchir.InventoryStore.dto.ProductImportReport;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// Streaming catalog import. Rows are parsed one at a time and written in chunks of `batchSize`:
+// one transaction per chunk holding one JDBC batch INSERT for the products (ids read back from
+// the batch's generated keys) and one for their CREATED stock events, so memory doesn't grow with
+// the file and a 200k-row catalog takes a few hundred round trips instead of 200k requests.
+// Rows get the same stock rules as createProduct; bad rows are reported (row number + reason)
+// and skipped. Chunks already committed stay if a later one fails.
+@Slf4j
+@Component
+public class ProductImporter {
+
+    // Default varchar length of the text columns; longer values would fail the whole chunk's batch
+    private static final int MAX_TEXT_LENGTH = 255;
+    private static final long PROGRESS_LOG_ROWS = 50_000;
+
+    private static final String INSERT_PRODUCT = "INSERT INTO product " +
+            "(name, description, stock_quantity, low_stock_threshold, image_url, version) VALUES (?, ?, ?, ?, ?, 0)";
+    // Same outbox row StockEventOutbox writes for a created product
+    private static final String INSERT_EVENT = "INSERT INTO stock_event " +
+            "(product_id, type, new_quantity, version, created_at) VALUES (?, 'CREATED', ?, 0, ?)";
+
+    private record Row(String name, String description, int stockQuantity, int lowStockThreshold, String imageUrl) {
+    }
+
+    // One NDJSON line; unknown fields (id, version, ...) are ignored
+    private record JsonRow(String name, String description, Integer stockQuantity, Integer lowStockThreshold,
+                           String imageUrl) {
+    }
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate tx;
+    private final ObjectMapper objectMapper;
+    private final LowStockIndex lowStockIndex;
+    private final ProductSearchIndex searchIndex;
+    private final CatalogVersion catalogVersion;
+    private final CsvMapper csvMapper = CsvMapper.builder()
+            .enable(CsvParser.Feature.TRIM_SPACES)
+            .enable(CsvParser.Feature.SKIP_EMPTY_LINES)
+            .enable(CsvParser.Feature.IGNORE_TRAILING_UNMAPPABLE)
+            .build();
+    private final int batchSize;
+    private final int maxReportedRejections;
+    private final Counter importedRows;
+    private final Counter rejectedRows;
+
+    public ProductImporter(JdbcTemplate jdbc,
+                           TransactionTemplate tx,
+                           ObjectMapper objectMapper,
+                           LowStockIndex lowStockIndex,
+                           ProductSearchIndex searchIndex,
+                           CatalogVersion catalogVersion,
+                           MeterRegistry meterRegistry,
+                           @Value("${inventory.import.batch-size:1000}") int batchSize,
+                           @Value("${inventory.import.max-reported-rejections:1000}") int maxReportedRejections) {
+        this.jdbc = jdbc;
+        this.tx = tx;
+        this.objectMapper = objectMapper;
+        this.lowStockIndex = lowStockIndex;
+        this.searchIndex = searchIndex;
+        this.catalogVersion = catalogVersion;
+        this.batchSize = batchSize;
+        this.maxReportedRejections = maxReportedRejections;
+        this.importedRows = importCounter("imported", meterRegistry);
+        this.rejectedRows = importCounter("rejected", meterRegistry);
+    }
+
+    public ProductImportReport importProducts(InputStream in, ProductImportFormat format) {
+        long started = System.nanoTime();
+        Run run = new Run();
+        try {
+            if (format == ProductImportFormat.CSV) {
+                readCsv(in, run);
+            } else {
+                readNdjson(in, run);
+            }
+            run.complete = true;
+        } catch (IOException e) {
+            String reason = e instanceof JsonProcessingException json ? json.getOriginalMessage() : e.getMessage();
+            run.processed++;
+            run.reject("Malformed input, import stopped: " + reason);
+        }
+        write(run); // the rows read before a malformed one are valid
+        if (run.imported > 0) {
+            // New rows reach the indexes (and the catalog version) in one pass instead of one
+            // dirty mark per product
+            lowStockIndex.rebuild();
+            searchIndex.rebuild();
+            catalogVersion.changedAll();
+        }
+        return ProductImportReport.builder()
+                .processed(run.processed)
+                .imported(run.imported)
+                .rejected(run.rejected)
+                .complete(run.complete)
+                .elapsedMillis((System.nanoTime() - started) / 1_000_000)
+                .rejections(run.rejections)
+                .build();
+    }
+
+    private void readCsv(InputStream in, Run run) throws IOException {
+        Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8);
+        try (MappingIterator<Map<String, String>> rows = csvMapper.readerForMapOf(String.class)
+                .with(CsvSchema.emptySchema().withHeader())
+                .readValues(reader)) {
+            while (rows.hasNextValue()) {
+                Map<String, String> fields = rows.nextValue();
+                run.processed++;
+                try {
+                    run.accept(row(fields.get("name"), fields.get("description"),
+                            integer(fields.get("stockQuantity"), "stockQuantity"),
+                            integer(fields.get("lowStockThreshold"), "lowStockThreshold"),
+                            fields.get("imageUrl")));
+                } catch (IllegalArgumentException | InvalidStockOperationException e) {
+                    run.reject(e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void readNdjson(InputStream in, Run run) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            run.processed++;
+            try {
+                JsonRow json = objectMapper.readValue(line, JsonRow.class);
+                run.accept(row(json.name(), json.description(), json.stockQuantity(), json.lowStockThreshold(), json.imageUrl()));
+            } catch (JsonProcessingException e) {
+                run.reject("Invalid JSON: " + e.getOriginalMessage());
+            } catch (IllegalArgumentException | InvalidStockOperationException e) {
+                run.reject(e.getMessage());
+            }
+        }
+    }
+
+    private static Row row(String name, String description, Integer stockQuantity, Integer lowStockThreshold,
+                           String imageUrl) {
+        int stock = stockQuantity == null ? 0 : stockQuantity;
+        int threshold = lowStockThreshold == null ? 0 : lowStockThreshold;
+        InvalidStockOperationException invalid = StockRules.invalidLevel(stock, threshold);
+        if (invalid != null) {
+            throw invalid;
+        }
+        return new Row(text(name, "name"), text(description, "description"), stock, threshold, text(imageUrl, "imageUrl"));
+    }
+
+    private static String text(String value, String field) {
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+        if (value.length() > MAX_TEXT_LENGTH) {
+            throw new IllegalArgumentException(field + " is longer than " + MAX_TEXT_LENGTH + " characters");
+        }
+        return value;
+    }
+
+    private static Integer integer(String value, String field) {
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+        try {
+            return Integer.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(field + " is not a whole number: " + value);
+        }
+    }
+
+    // One transaction: the chunk's products, then their outbox rows keyed by the generated ids
+    private void write(Run run) {
+        List<Row> chunk = run.chunk;
+        if (chunk.isEmpty()) {
+            return;
+        }
+        tx.executeWithoutResult(status -> {
+            KeyHolder keys = new GeneratedKeyHolder();
+            jdbc.batchUpdate(con -> con.prepareStatement(INSERT_PRODUCT, new String[]{"id"}),
+                    new BatchPreparedStatementSetter() {
+                        @Override
+                        public void setValues(PreparedStatement ps, int i) throws SQLException {
+                            Row row = chunk.get(i);
+                            setText(ps, 1, row.name());
+                            setText(ps, 2, row.description());
+                            ps.setInt(3, row.stockQuantity());
+                            ps.setInt(4, row.lowStockThreshold());
+                            setText(ps, 5, row.imageUrl());
+                        }
+
+                        @Override
+                        public int getBatchSize() {
+                            return chunk.size();
+                        }
+                    }, keys);
+            List<Map<String, Object>> ids = keys.getKeyList();
+            Timestamp now = Timestamp.from(Instant.now());
+            List<Object[]> events = new ArrayList<>(chunk.size());
+            for (int i = 0; i < chunk.size(); i++) {
+                events.add(new Object[]{((Number) ids.get(i).get("id")).longValue(), chunk.get(i).stockQuantity(), now});
+            }
+            jdbc.batchUpdate(INSERT_EVENT, events);
+        });
+        run.imported += chunk.size();
+        importedRows.increment(chunk.size());
+        chunk.clear();
+        if (run.processed - run.lastLogged >= PROGRESS_LOG_ROWS) {
+            run.lastLogged = run.processed;
+            log.info("Product import: {} rows read, {} imported, {} rejected", run.processed, run.imported, run.rejected);
+        }
+    }
+
+    private static void setText(PreparedStatement ps, int index, String value) throws SQLException {
+        if (value == null) {
+            ps.setNull(index, Types.VARCHAR);
+        } else {
+            ps.setString(index, value);
+        }
+    }
+
+    private static Counter importCounter(String outcome, MeterRegistry meterRegistry) {
+        return Counter.builder("inventory.import.rows")
+                .description("Catalog import rows by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    // State of one import; only the current chunk and the reported rejections are held in memory
+    private final class Run {
+        final List<Row> chunk = new ArrayList<>(batchSize);
+        final List<ProductImportRejection> rejections = new ArrayList<>();
+        long processed;
+        long imported;
+        long rejected;
+        long lastLogged;
+        boolean complete;
+
+        void accept(Row row) {
+            chunk.add(row);
+            if (chunk.size() == batchSize) {
+                write(this);
+            }
+        }
+
+        // Against the row just read
+        void reject(String message) {
+            rejected++;
+            rejectedRows.increment();
+            if (rejections.size() < maxReportedRejections) {
+                rejections.add(new ProductImportRejection(processed, message));
+            }
+        }
+    }
+}
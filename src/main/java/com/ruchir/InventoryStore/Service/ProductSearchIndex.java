@@ -0,0 +1,117 @@
+package com.ruchir.InventoryStore.Service;
+
+import com.ruchir.InventoryStore.dao.ProductRepository;
+import com.ruchir.InventoryStore.event.ProductChangedEvent;
+import com.ruchir.InventoryStore.event.ProductChangedEvent.ChangeType;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+// Keeps a ProductTextIndex in line with the product table, same scheme as LowStockIndex:
+// committed creates/edits/deletes only mark a product dirty, and the next search re-reads the
+// dirty rows' text in one query before answering. Stock-only changes and reservations don't
+// touch the text and are ignored. A periodic full rebuild (built off to the side, then swapped in)
+// picks up writes made by other instances.
+@Slf4j
+@Component
+public class ProductSearchIndex {
+
+    private final ProductRepository repo;
+    private final TransactionTemplate readOnlyTx;
+    private final int maxPrefixTerms;
+
+    private final Set<Long> dirtyIds = ConcurrentHashMap.newKeySet();
+    private final ReentrantLock swapLock = new ReentrantLock();
+    private volatile ProductTextIndex index;
+    private volatile Set<Long> touchedDuringRebuild;
+
+    public ProductSearchIndex(ProductRepository repo,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${inventory.search.max-prefix-terms:64}") int maxPrefixTerms) {
+        this.repo = repo;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+        this.maxPrefixTerms = maxPrefixTerms;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${inventory.search.rebuild-interval:30m}",
+            fixedDelayString = "${inventory.search.rebuild-interval:30m}")
+    public void rebuild() {
+        long started = System.nanoTime();
+        Set<Long> touched = ConcurrentHashMap.newKeySet();
+        touchedDuringRebuild = touched;
+        ProductTextIndex fresh = new ProductTextIndex(maxPrefixTerms);
+        readOnlyTx.executeWithoutResult(status -> {
+            try (Stream<ProductRepository.SearchText> rows = repo.streamSearchText()) {
+                rows.forEach(row -> fresh.put(row.getId(), row.getName(), row.getDescription()));
+            }
+        });
+        swapLock.lock();
+        try {
+            touchedDuringRebuild = null;
+            // Rows changed while streaming may have been read before their commit
+            reindex(fresh, touched);
+            index = fresh;
+        } finally {
+            swapLock.unlock();
+        }
+        log.info("Search index rebuilt: {} products in {} ms", fresh.size(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.type() == ChangeType.STOCK || event.type() == ChangeType.RESERVATION) {
+            return;
+        }
+        dirtyIds.add(event.productId());
+        Set<Long> touched = touchedDuringRebuild;
+        if (touched != null) {
+            touched.add(event.productId());
+        }
+    }
+
+    public ProductTextIndex.Hits search(String query, int offset, int limit) {
+        if (index == null) {
+            rebuild();
+        }
+        if (!dirtyIds.isEmpty()) {
+            Set<Long> dirty = new HashSet<>();
+            for (Iterator<Long> it = dirtyIds.iterator(); it.hasNext(); ) {
+                dirty.add(it.next());
+                it.remove();
+            }
+            swapLock.lock();
+            try {
+                reindex(index, dirty);
+            } finally {
+                swapLock.unlock();
+            }
+        }
+        return index.search(query, offset, limit);
+    }
+
+    private void reindex(ProductTextIndex target, Set<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        Set<Long> missing = new HashSet<>(ids);
+        for (ProductRepository.SearchText row : repo.findSearchTextByIdIn(ids)) {
+            target.put(row.getId(), row.getName(), row.getDescription());
+            missing.remove(row.getId());
+        }
+        missing.forEach(target::remove); // deleted products
+    }
+}
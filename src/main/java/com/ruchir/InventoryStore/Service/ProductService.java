@@ -1,17 +1,50 @@
 package com.ruchir.InventoryStore.Service;
 
+import com.ruchir.InventoryStore.dto.ProductFields;
+import com.ruchir.InventoryStore.dto.ProductPatch;
+import com.ruchir.InventoryStore.dto.ProductSearchPage;
+import com.ruchir.InventoryStore.dto.StockMovement;
+import com.ruchir.InventoryStore.dto.StockMovementMode;
+import com.ruchir.InventoryStore.dto.StockMovementResponse;
+import com.ruchir.InventoryStore.model.LocationStock;
 import com.ruchir.InventoryStore.model.Product;
+import com.ruchir.InventoryStore.model.StockReservation;
 import org.springframework.web.multipart.MultipartFile;
+import java.time.Duration;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 public interface ProductService {
     Product createProduct(Product product);
     Product createProductWithImage(Product product, MultipartFile file);
     Product getProduct(Long id);
     List<Product> getAllProducts();
-    Product updateProduct(Long id, Product product);
+    List<Product> getProductsPage(Long afterId, int limit);
+    // Existing products among ids, by id; missing ones are left out
+    List<Product> getProducts(Collection<Long> ids);
+    // Same page with only the selected columns read and returned
+    List<Map<String, Object>> getProductsPage(Long afterId, int limit, ProductFields fields);
+    void exportProducts(Consumer<Product> sink);
+    ProductSearchPage searchProducts(String query, int offset, int limit);
+    // expectedVersion: from If-Match, null for an unconditional write
+    Product updateProduct(Long id, Product product, Long expectedVersion);
+    long patchProduct(Long id, ProductPatch patch, Long expectedVersion);
     void deleteProduct(Long id);
     Product increaseStock(Long id, int qty);
     Product decreaseStock(Long id, int qty);
+    int adjustStock(Long id, int delta);
+    StockMovementResponse applyStockMovements(List<StockMovement> movements, StockMovementMode mode);
+    // Checkout holds: reserve takes qty out of available stock until confirmed, released or expired
+    // (ttl null = the configured default)
+    StockReservation reserveStock(Long productId, int qty, Duration ttl);
+    StockReservation getReservation(Long reservationId);
+    Product confirmReservation(Long reservationId);
+    void releaseReservation(Long reservationId);
+    int releaseExpiredReservations(int max);
     List<Product> getLowStockProducts();
+    // Per-location stock; stockQuantity stays the product total and catches up asynchronously
+    List<LocationStock> getLocationStock(Long id);
+    LocationStock adjustLocationStock(Long id, String location, int delta);
 }
@@ -1,48 +1,117 @@
 package com.ruchir.InventoryStore.Service;
 
 import com.ruchir.InventoryStore.Exceptions.InvalidStockOperationException;
+import com.ruchir.InventoryStore.Exceptions.InvalidStockOperationException.Reason;
+import com.ruchir.InventoryStore.Exceptions.PreconditionFailedException;
 import com.ruchir.InventoryStore.Exceptions.ResourceNotFoundException;
+import com.ruchir.InventoryStore.dao.LocationStockDeltaRepository;
+import com.ruchir.InventoryStore.dao.LocationStockRepository;
 import com.ruchir.InventoryStore.dao.ProductRepository;
+import com.ruchir.InventoryStore.dao.StockReservationRepository;
+import com.ruchir.InventoryStore.dto.ProductFields;
+import com.ruchir.InventoryStore.dto.ProductPatch;
+import com.ruchir.InventoryStore.dto.ProductSearchPage;
+import com.ruchir.InventoryStore.dto.StockMovement;
+import com.ruchir.InventoryStore.dto.StockMovementMode;
+import com.ruchir.InventoryStore.dto.StockMovementResponse;
+import com.ruchir.InventoryStore.dto.StockMovementResult;
+import com.ruchir.InventoryStore.event.ProductChangedEvent;
+import com.ruchir.InventoryStore.event.ProductChangedEvent.ChangeType;
+import com.ruchir.InventoryStore.model.LocationStock;
+import com.ruchir.InventoryStore.model.LocationStockDelta;
 import com.ruchir.InventoryStore.model.Product;
+import com.ruchir.InventoryStore.model.StockReservation;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Root;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.File;
 import java.io.IOException;
-import java.nio.file.*;
-import java.util.List;
-import java.util.UUID;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class ProductServiceImpl implements ProductService {
 
+    // An unconditional PATCH re-reads and retries when a concurrent write bumps the version
+    private static final int PATCH_ATTEMPTS = 3;
+
+    private static final Pattern LOCATION_CODE = Pattern.compile("[A-Za-z0-9][A-Za-z0-9._-]{0,63}");
+
     private final ProductRepository repo;
+    private final StockReservationRepository reservations;
+    private final LocationStockRepository locationStock;
+    private final LocationStockDeltaRepository locationDeltas;
+    private final EntityManager entityManager;
+    private final ProductCache productCache;
+    private final LowStockIndex lowStockIndex;
+    private final ProductSearchIndex searchIndex;
+    private final ImageStorageService imageStorage;
+    private final ApplicationEventPublisher events;
+    private final TransactionTemplate tx;
+
+    // true  -> one conditional UPDATE per adjustment (safe under concurrency)
+    // false -> legacy read-modify-write through the entity
+    @Value("${inventory.stock.atomic-updates:true}")
+    private boolean atomicStockUpdates;
+
+    @Value("${inventory.stock.movements.max-batch:1000}")
+    private int maxMovementsPerBatch;
+
+    @Value("${inventory.products.page.max-size:500}")
+    private int maxPageSize;
+
+    // Deepest ranked result reachable with offset + limit
+    @Value("${inventory.search.max-window:1000}")
+    private int maxSearchWindow;
+
+    @Value("${inventory.reservations.ttl:15m}")
+    private Duration reservationTtl;
+
+    @Value("${inventory.reservations.max-ttl:2h}")
+    private Duration maxReservationTtl;
 
     @Override
+    @Transactional
     public Product createProduct(Product product) {
         validateStock(product);
-        // Ensure id is not forced from Postman
+        // Ensure id/version are not forced from Postman
         product.setId(null);
-        return repo.save(product);
+        product.setVersion(null);
+        Product saved = repo.save(product);
+        publish(saved.getId(), ChangeType.CREATED, null, saved.getStockQuantity(), saved.getVersion());
+        return saved;
     }
 
     @Override
     public Product createProductWithImage(Product product, MultipartFile file) {
+        validateStock(product); // reject before writing anything to disk
         try {
-            String uploadDir = "uploads/images/";
-            File dir = new File(uploadDir);
-            if (!dir.exists()) dir.mkdirs();
-
-            String fileName = UUID.randomUUID() + "_" + file.getOriginalFilename();
-            Path filePath = Paths.get(uploadDir + fileName);
-            Files.copy(file.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
-
+            String fileName = imageStorage.store(file);
             product.setImageUrl("/api/products/images/" + fileName);
-            validateStock(product);
             product.setId(null); // avoid stale object
-            return repo.save(product);
+            product.setVersion(null);
+            // Row and stock event commit together; the image I/O above runs without holding a connection
+            return tx.execute(status -> {
+                Product saved = repo.save(product);
+                publish(saved.getId(), ChangeType.CREATED, null, saved.getStockQuantity(), saved.getVersion());
+                return saved;
+            });
         } catch (IOException e) {
             throw new RuntimeException("Failed to store image", e);
         }
@@ -50,8 +119,11 @@ public class ProductServiceImpl implements ProductService {
 
     @Override
     public Product getProduct(Long id) {
-        return repo.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Product not found: " + id));
+        Product product = productCache.get(id, key -> repo.findById(key).orElse(null));
+        if (product == null) {
+            throw new ResourceNotFoundException("Product not found: " + id);
+        }
+        return product;
     }
 
     @Override
@@ -60,75 +132,565 @@ public class ProductServiceImpl implements ProductService {
     }
 
     @Override
-    public Product updateProduct(Long id, Product product) {
-        Product existing = getProduct(id); // ensures it's managed entity
+    public List<Product> getProductsPage(Long afterId, int limit) {
+        if (limit <= 0) {
+            throw new InvalidStockOperationException("Page size must be positive");
+        }
+        long cursor = afterId == null ? 0L : afterId;
+        return repo.findByIdGreaterThanOrderByIdAsc(cursor, Limit.of(Math.min(limit, maxPageSize)));
+    }
 
-        if (product.getStockQuantity() < 0) {
-            throw new InvalidStockOperationException("Stock cannot be negative");
+    @Override
+    public List<Product> getProducts(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
         }
-        if (product.getLowStockThreshold() > 0 &&
-                product.getStockQuantity() < product.getLowStockThreshold()) {
-            throw new InvalidStockOperationException(
-                    "Stock quantity cannot be lower than the low-stock threshold (" + product.getLowStockThreshold() + ")"
-            );
+        List<Product> products = new ArrayList<>(repo.findAllById(ids));
+        products.sort(Comparator.comparing(Product::getId));
+        return products;
+    }
+
+    @Override
+    public List<Map<String, Object>> getProductsPage(Long afterId, int limit, ProductFields fields) {
+        if (limit <= 0) {
+            throw new InvalidStockOperationException("Page size must be positive");
+        }
+        return repo.findPageFields(afterId == null ? 0L : afterId, Math.min(limit, maxPageSize), fields);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportProducts(Consumer<Product> sink) {
+        try (Stream<Product> rows = repo.streamAllOrderedById()) {
+            rows.forEach(product -> {
+                sink.accept(product);
+                entityManager.detach(product); // keep the persistence context empty -> constant memory
+            });
+        }
+    }
+
+    // Ranked ids from the in-memory index, rows from one IN query (re-ordered to rank)
+    @Override
+    public ProductSearchPage searchProducts(String query, int offset, int limit) {
+        if (query == null || ProductTextIndex.tokenize(query).isEmpty()) {
+            throw new InvalidStockOperationException("Search query must contain a letter or digit");
+        }
+        if (offset < 0 || limit <= 0) {
+            throw new InvalidStockOperationException("Offset must not be negative and page size must be positive");
+        }
+        int pageSize = Math.min(limit, maxPageSize);
+        if ((long) offset + pageSize > maxSearchWindow) {
+            throw new InvalidStockOperationException("Search results are limited to the first " + maxSearchWindow + " matches");
+        }
+        ProductTextIndex.Hits hits = searchIndex.search(query, offset, pageSize);
+        if (hits.ids().length == 0) {
+            return new ProductSearchPage(hits.total(), List.of());
         }
+        Map<Long, Product> rows = repo.findAllById(Arrays.stream(hits.ids()).boxed().toList()).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        List<Product> products = Arrays.stream(hits.ids())
+                .mapToObj(rows::get)
+                .filter(Objects::nonNull) // deleted since the index was last refreshed
+                .toList();
+        return new ProductSearchPage(hits.total(), products);
+    }
+
+    @Override
+    @Transactional
+    public Product updateProduct(Long id, Product product, Long expectedVersion) {
+        Product existing = findManaged(id); // ensures it's managed entity
+        checkVersion(id, existing.getVersion(), expectedVersion);
+        validateStock(product);
+        checkReserved(product, existing.getReservedQuantity());
 
+        int oldQty = existing.getStockQuantity();
         existing.setName(product.getName());
         existing.setDescription(product.getDescription());
         existing.setLowStockThreshold(product.getLowStockThreshold());
         existing.setStockQuantity(product.getStockQuantity());
         existing.setImageUrl(product.getImageUrl());
 
-        return repo.save(existing);
+        // Flushed here so the version check runs now and the event carries the new version
+        Product saved = repo.saveAndFlush(existing);
+        if (saved.getStockQuantity() < oldQty) {
+            checkUnassigned(id);
+        }
+        publish(id, ChangeType.UPDATED, oldQty, saved.getStockQuantity(), saved.getVersion());
+        return saved;
     }
 
+    // Partial update without loading the entity: a narrow read of (stock, threshold, version),
+    // then one UPDATE of the supplied columns guarded by that version. Returns the new version.
     @Override
-    public void deleteProduct(Long id) {
-        if (!repo.existsById(id)) {
-            throw new ResourceNotFoundException("Product not found: " + id);
+    @Transactional
+    public long patchProduct(Long id, ProductPatch patch, Long expectedVersion) {
+        if (patch == null || (patch.getName() == null && patch.getDescription() == null
+                && patch.getStockQuantity() == null && patch.getLowStockThreshold() == null
+                && patch.getImageUrl() == null)) {
+            throw new InvalidStockOperationException("No fields to update");
         }
-        repo.deleteById(id);
+        for (int attempt = 1; ; attempt++) {
+            ProductRepository.StockLevel current = repo.findStockLevelById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("Product not found: " + id));
+            checkVersion(id, current.getVersion(), expectedVersion);
+
+            Product merged = Product.builder()
+                    .stockQuantity(patch.getStockQuantity() != null ? patch.getStockQuantity() : current.getStockQuantity())
+                    .lowStockThreshold(patch.getLowStockThreshold() != null ? patch.getLowStockThreshold() : current.getLowStockThreshold())
+                    .build();
+            validateStock(merged);
+            checkReserved(merged, current.getReservedQuantity());
+
+            if (updateFields(id, patch, current.getVersion()) == 1) {
+                if (merged.getStockQuantity() < current.getStockQuantity()) {
+                    checkUnassigned(id);
+                }
+                long version = current.getVersion() + 1;
+                publish(id, ChangeType.UPDATED, current.getStockQuantity(), merged.getStockQuantity(), version);
+                return version;
+            }
+            // Someone else wrote the row between the read and the UPDATE
+            if (expectedVersion != null || attempt == PATCH_ATTEMPTS) {
+                throw new PreconditionFailedException("Product " + id + " was modified concurrently");
+            }
+        }
+    }
+
+    @Override
+    @Transactional
+    public void deleteProduct(Long id) {
+        Product existing = findManaged(id);
+        reservations.removeByProductId(id); // open holds go with the product
+        locationStock.removeByProductId(id);
+        locationDeltas.removeByProductId(id);
+        repo.delete(existing);
+        publish(id, ChangeType.DELETED, existing.getStockQuantity(), null, existing.getVersion() + 1);
     }
 
     @Override
+    @Transactional
     public Product increaseStock(Long id, int qty) {
-        Product product = getProduct(id);
-        product.setStockQuantity(product.getStockQuantity() + qty);
+        if (atomicStockUpdates) {
+            return adjusted(id, qty);
+        }
+        Product product = findManaged(id);
+        int oldQty = product.getStockQuantity();
+        product.setStockQuantity(oldQty + qty);
         validateStock(product);
-        return repo.save(product);
+        Product saved = repo.saveAndFlush(product);
+        publish(id, ChangeType.STOCK, oldQty, saved.getStockQuantity(), saved.getVersion());
+        return saved;
     }
 
     @Override
+    @Transactional
     public Product decreaseStock(Long id, int qty) {
-        Product product = getProduct(id);
-        if (product.getStockQuantity() < qty) {
-            throw new InvalidStockOperationException("Insufficient stock available");
+        if (atomicStockUpdates) {
+            return adjusted(id, -qty);
+        }
+        Product product = findManaged(id);
+        int available = product.getStockQuantity() - product.getReservedQuantity();
+        if (available < qty) {
+            throw new InvalidStockOperationException(Reason.INSUFFICIENT_STOCK, "Insufficient stock available");
         }
         int newQty = product.getStockQuantity() - qty;
-        if (newQty < product.getLowStockThreshold()) {
-            throw new InvalidStockOperationException(
+        if (available - qty < product.getLowStockThreshold()) {
+            throw new InvalidStockOperationException(Reason.THRESHOLD_VIOLATION,
                     "Cannot decrease: stock would go below threshold (" + product.getLowStockThreshold() + ")"
             );
         }
+        int oldQty = product.getStockQuantity();
         product.setStockQuantity(newQty);
-        return repo.save(product);
+        Product saved = repo.saveAndFlush(product);
+        checkUnassigned(id);
+        publish(id, ChangeType.STOCK, oldQty, newQty, saved.getVersion());
+        return saved;
+    }
+
+    @Override
+    @Transactional
+    public int adjustStock(Long id, int delta) {
+        return adjust(id, delta).getStockQuantity();
+    }
+
+    // One conditional UPDATE and the product as it stands after it; CoalescingProductService
+    // applies a whole batch of decreases with it
+    @Transactional
+    public Product adjustStockAndGet(Long id, int delta) {
+        return adjusted(id, delta);
+    }
+
+    @Override
+    @Transactional
+    public StockMovementResponse applyStockMovements(List<StockMovement> movements, StockMovementMode mode) {
+        if (movements == null || movements.isEmpty()) {
+            throw new InvalidStockOperationException("No stock movements supplied");
+        }
+        if (movements.size() > maxMovementsPerBatch) {
+            throw new InvalidStockOperationException("Batch cannot exceed " + maxMovementsPerBatch + " stock movements");
+        }
+
+        // One locking SELECT for the whole batch, rows locked in id order
+        Set<Long> ids = movements.stream()
+                .map(StockMovement::getProductId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toCollection(TreeSet::new));
+        Map<Long, Product> products = ids.isEmpty() ? Map.of() : repo.findAllByIdForUpdate(ids).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        // Products with locations: units out of the product's reach (located minus not yet rolled up)
+        Map<Long, Long> assigned = new HashMap<>();
+        if (!products.isEmpty()) {
+            for (Object[] row : locationStock.findAssignedByProductIdIn(products.keySet())) {
+                assigned.put((Long) row[0], ((Number) row[1]).longValue());
+            }
+        }
+
+        // Lines are applied in submission order against a running quantity per product
+        Map<Long, Integer> running = new HashMap<>();
+        List<StockMovementResult> results = new ArrayList<>(movements.size());
+        int rejected = 0;
+        for (int line = 0; line < movements.size(); line++) {
+            StockMovement movement = movements.get(line);
+            Product product = movement.getProductId() == null ? null : products.get(movement.getProductId());
+            StockMovementResult result = StockMovementResult.builder()
+                    .line(line)
+                    .productId(movement.getProductId())
+                    .delta(movement.getDelta())
+                    .build();
+
+            String reason;
+            if (product == null) {
+                reason = "Product not found: " + movement.getProductId();
+            } else if (movement.getDelta() == 0) {
+                reason = "Delta must be non-zero";
+            } else {
+                int current = running.getOrDefault(product.getId(), product.getStockQuantity());
+                int available = current - product.getReservedQuantity();
+                reason = StockRules.rejectionReason(available, product.getLowStockThreshold(), movement.getDelta());
+                long unassigned = available - assigned.getOrDefault(product.getId(), 0L);
+                if (reason == null && movement.getDelta() < 0 && unassigned + movement.getDelta() < 0) {
+                    reason = unassignedShortage().getMessage();
+                }
+                if (reason == null) {
+                    running.put(product.getId(), current + movement.getDelta());
+                    result.setNewQuantity(current + movement.getDelta());
+                }
+            }
+
+            if (reason != null) {
+                result.setStatus(StockMovementResult.Status.REJECTED);
+                result.setMessage(reason);
+                rejected++;
+            } else {
+                result.setStatus(StockMovementResult.Status.APPLIED);
+            }
+            results.add(result);
+        }
+
+        if (rejected > 0 && mode == StockMovementMode.ALL_OR_NOTHING) {
+            for (StockMovementResult result : results) {
+                if (result.getStatus() == StockMovementResult.Status.APPLIED) {
+                    result.setStatus(StockMovementResult.Status.SKIPPED);
+                    result.setNewQuantity(null);
+                    result.setMessage("Batch not applied");
+                }
+            }
+            return new StockMovementResponse(mode, 0, rejected, results);
+        }
+
+        // Dirty entities are flushed as batched UPDATEs (hibernate.jdbc.batch_size, ordered by id)
+        List<Product> changed = new ArrayList<>(running.size());
+        Map<Long, Integer> before = new HashMap<>();
+        running.forEach((id, qty) -> {
+            Product product = products.get(id);
+            before.put(id, product.getStockQuantity());
+            product.setStockQuantity(qty);
+            changed.add(product);
+        });
+        repo.saveAll(changed);
+        repo.flush(); // assigns the new versions the events carry
+        for (Product product : changed) {
+            publish(product.getId(), ChangeType.STOCK, before.get(product.getId()), product.getStockQuantity(), product.getVersion());
+        }
+
+        return new StockMovementResponse(mode, results.size() - rejected, rejected, results);
+    }
+
+    // One conditional UPDATE of the product's held units plus the reservation row; nothing stays
+    // locked while the customer pays
+    @Override
+    @Transactional
+    public StockReservation reserveStock(Long productId, int qty, Duration ttl) {
+        if (qty <= 0) {
+            throw new InvalidStockOperationException("Reservation quantity must be positive");
+        }
+        Duration hold = ttl == null ? reservationTtl : ttl;
+        if (hold.isNegative() || hold.isZero() || hold.compareTo(maxReservationTtl) > 0) {
+            throw new InvalidStockOperationException("Reservation TTL must be positive and at most " + maxReservationTtl);
+        }
+        if (repo.reserveStock(productId, qty) == 0) {
+            throw rejectedAdjustment(productId, -qty);
+        }
+        checkUnassigned(productId); // held units must be ones a product-level confirm can take
+        Instant now = Instant.now();
+        StockReservation reservation = reservations.save(StockReservation.builder()
+                .productId(productId)
+                .quantity(qty)
+                .createdAt(now)
+                .expiresAt(now.plus(hold))
+                .build());
+        publishReservation(productId);
+        return reservation;
+    }
+
+    @Override
+    public StockReservation getReservation(Long reservationId) {
+        return reservations.findById(reservationId)
+                .filter(reservation -> reservation.getExpiresAt().isAfter(Instant.now()))
+                .orElseThrow(() -> new ResourceNotFoundException("Reservation not found or expired: " + reservationId));
+    }
+
+    @Override
+    @Transactional
+    public Product confirmReservation(Long reservationId) {
+        StockReservation reservation = claimReservation(reservationId, true);
+        Long productId = reservation.getProductId();
+        repo.commitReserved(productId, reservation.getQuantity());
+        ProductRepository.StockLevel level = stockLevel(productId);
+        publish(productId, ChangeType.STOCK, level.getStockQuantity() + reservation.getQuantity(),
+                level.getStockQuantity(), level.getVersion());
+        return withLevel(productId, level);
+    }
+
+    @Override
+    @Transactional
+    public void releaseReservation(Long reservationId) {
+        StockReservation reservation = claimReservation(reservationId, false);
+        repo.releaseReserved(reservation.getProductId(), reservation.getQuantity());
+        publishReservation(reservation.getProductId());
+    }
+
+    // Up to `max` expired holds in one transaction, one UPDATE per product (in id order)
+    @Override
+    @Transactional
+    public int releaseExpiredReservations(int max) {
+        List<StockReservation> expired = reservations.findExpiredForUpdate(Instant.now(), Limit.of(max));
+        if (expired.isEmpty()) {
+            return 0;
+        }
+        reservations.deleteAllByIdInBatch(expired.stream().map(StockReservation::getId).toList());
+        Map<Long, Integer> held = new TreeMap<>();
+        for (StockReservation reservation : expired) {
+            held.merge(reservation.getProductId(), reservation.getQuantity(), Integer::sum);
+        }
+        held.forEach((productId, qty) -> {
+            if (repo.releaseReserved(productId, qty) == 1) {
+                publishReservation(productId);
+            }
+        });
+        return expired.size();
     }
 
     @Override
     public List<Product> getLowStockProducts() {
-        return repo.findByStockQuantityLessThan(10); // static threshold for now
+        return lowStockIndex.lowStockProducts();
+    }
+
+    @Override
+    public List<LocationStock> getLocationStock(Long id) {
+        stockLevel(id); // 404 for an unknown product rather than an empty list
+        return locationStock.findByProductIdOrderByLocation(id);
+    }
+
+    // Writes only the location's row plus an appended delta row, never the product row, so
+    // locations don't queue behind each other; LocationStockRollup adds the deltas to
+    // stockQuantity shortly after. Threshold and reservations are checked against the total
+    // including committed pending deltas, without a lock: concurrent decrements at different
+    // locations can take the total just past the threshold, but a location never goes negative.
+    // Product-level writes can't take located units (checkUnassigned), so the units a location holds
+    // are always still part of the total.
+    @Override
+    @Transactional
+    public LocationStock adjustLocationStock(Long id, String location, int delta) {
+        if (location == null || !LOCATION_CODE.matcher(location).matches()) {
+            throw new InvalidStockOperationException("Location must be 1-64 letters, digits, '.', '_' or '-'");
+        }
+        if (delta == 0) {
+            throw new InvalidStockOperationException("Quantity must be positive");
+        }
+        ProductRepository.StockLevel level = stockLevel(id);
+        if (delta < 0) {
+            long total = locationDeltas.findCurrentTotal(id).orElse((long) level.getStockQuantity());
+            InvalidStockOperationException rejection = StockRules.rejection(
+                    (int) Math.min(Integer.MAX_VALUE, total - level.getReservedQuantity()), level.getLowStockThreshold(), delta);
+            if (rejection != null) {
+                throw rejection;
+            }
+        }
+        // Appended before the location row is locked, so the lock spans only the UPDATE and the
+        // read-back; a rejected adjustment rolls the delta back with it
+        locationDeltas.save(LocationStockDelta.builder()
+                .productId(id)
+                .delta(delta)
+                .createdAt(Instant.now())
+                .build());
+        if (locationStock.adjust(id, location, delta) == 0) {
+            if (delta < 0) {
+                int held = locationStock.findByProductIdAndLocation(id, location).map(LocationStock::getQuantity).orElse(0);
+                throw new InvalidStockOperationException(Reason.INSUFFICIENT_STOCK,
+                        "Insufficient stock at " + location + " (" + held + " units)");
+            }
+            locationStock.createIfAbsent(id, location);
+            if (locationStock.adjust(id, location, delta) == 0) {
+                throw new InvalidStockOperationException("Stock adjustment rejected"); // int overflow
+            }
+        }
+        return locationStock.findByProductIdAndLocation(id, location).orElseThrow();
+    }
+
+    // 🔹 Managed entity for read-modify-write paths (bypasses the cache)
+    private Product findManaged(Long id) {
+        return repo.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Product not found: " + id));
+    }
+
+    // 🔹 One conditional UPDATE, then the resulting stock level (quantity + version) for the event
+    private ProductRepository.StockLevel adjust(Long id, int delta) {
+        if (repo.adjustStock(id, delta) == 0) {
+            throw rejectedAdjustment(id, delta);
+        }
+        if (delta < 0) {
+            checkUnassigned(id);
+        }
+        ProductRepository.StockLevel level = stockLevel(id);
+        publish(id, ChangeType.STOCK, level.getStockQuantity() - delta, level.getStockQuantity(), level.getVersion());
+        return level;
+    }
+
+    // 🔹 adjust() + withLevel() in one read: on a cache miss the full row read after the UPDATE
+    // already carries the new level, so the narrow level query is skipped
+    private Product adjusted(Long id, int delta) {
+        if (productCache.peek(id) != null) {
+            return withLevel(id, adjust(id, delta));
+        }
+        if (repo.adjustStock(id, delta) == 0) {
+            throw rejectedAdjustment(id, delta);
+        }
+        if (delta < 0) {
+            checkUnassigned(id);
+        }
+        Product product = findManaged(id);
+        entityManager.detach(product);
+        publish(id, ChangeType.STOCK, product.getStockQuantity() - delta, product.getStockQuantity(), product.getVersion());
+        return product;
+    }
+
+    private ProductRepository.StockLevel stockLevel(Long id) {
+        return repo.findStockLevelById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Product not found: " + id));
+    }
+
+    // 🔹 Deletes the hold and returns it. The DELETE decides races: of a concurrent confirm, release
+    // and sweep of the same hold exactly one removes the row, the others get not-found.
+    private StockReservation claimReservation(Long reservationId, boolean unexpiredOnly) {
+        StockReservation reservation = reservations.findById(reservationId).orElse(null);
+        if (reservation == null
+                || (unexpiredOnly && !reservation.getExpiresAt().isAfter(Instant.now()))
+                || reservations.removeById(reservationId) == 0) {
+            throw new ResourceNotFoundException("Reservation not found or expired: " + reservationId);
+        }
+        return reservation;
+    }
+
+    // 🔹 Response for an atomic adjustment: cached row + fresh quantity/version, DB read only on a cache miss.
+    // Uses peek() so rows read inside this (uncommitted) transaction never enter the cache.
+    private Product withLevel(Long id, ProductRepository.StockLevel level) {
+        Product product = productCache.peek(id);
+        if (product == null) {
+            product = findManaged(id);
+            entityManager.detach(product);
+        }
+        product.setStockQuantity(level.getStockQuantity());
+        product.setReservedQuantity(level.getReservedQuantity());
+        product.setVersion(level.getVersion());
+        return product;
+    }
+
+    // 🔹 One UPDATE writing only the supplied columns; matches nothing if the version moved on
+    private int updateFields(Long id, ProductPatch patch, long version) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Product> update = cb.createCriteriaUpdate(Product.class);
+        Root<Product> product = update.from(Product.class);
+        if (patch.getName() != null) update.set(product.<String>get("name"), patch.getName());
+        if (patch.getDescription() != null) update.set(product.<String>get("description"), patch.getDescription());
+        if (patch.getStockQuantity() != null) update.set(product.<Integer>get("stockQuantity"), patch.getStockQuantity());
+        if (patch.getLowStockThreshold() != null) update.set(product.<Integer>get("lowStockThreshold"), patch.getLowStockThreshold());
+        if (patch.getImageUrl() != null) update.set(product.<String>get("imageUrl"), patch.getImageUrl());
+        update.set(product.<Long>get("version"), version + 1);
+        update.where(cb.equal(product.get("id"), id), cb.equal(product.get("version"), version));
+        return entityManager.createQuery(update).executeUpdate();
+    }
+
+    // 🔹 If-Match check against the stored version (null = unconditional)
+    private static void checkVersion(Long id, Long current, Long expectedVersion) {
+        if (expectedVersion != null && !expectedVersion.equals(current)) {
+            throw new PreconditionFailedException(
+                    "Product " + id + " is at version " + current + ", not " + expectedVersion);
+        }
+    }
+
+    // 🔹 Held units changed: stock itself didn't, but caches and the ledger must re-read the row
+    private void publishReservation(Long id) {
+        repo.findStockLevelById(id).ifPresent(level -> publish(id, ChangeType.RESERVATION,
+                level.getStockQuantity(), level.getStockQuantity(), level.getVersion()));
+    }
+
+    private void publish(Long id, ChangeType type, Integer oldQty, Integer newQty, Long version) {
+        events.publishEvent(new ProductChangedEvent(id, type, oldQty, newQty, version));
+    }
+
+    // 🔹 Works out why the conditional UPDATE matched no row (only runs on the failure path)
+    private RuntimeException rejectedAdjustment(Long id, int delta) {
+        ProductRepository.StockLevel level = repo.findStockLevelById(id).orElse(null);
+        if (level == null) {
+            return new ResourceNotFoundException("Product not found: " + id);
+        }
+        InvalidStockOperationException rejection =
+                StockRules.rejection(level.getStockQuantity() - level.getReservedQuantity(), level.getLowStockThreshold(), delta);
+        return rejection != null ? rejection : new InvalidStockOperationException("Stock adjustment rejected");
+    }
+
+    // 🔹 Product-level writes may only take stock that isn't assigned to a location, so the product
+    // total never drops below the sum of its locations. Runs after the write, with the product row
+    // still locked: location adjustments committing meanwhile change located units and the total
+    // together, and a rollup waits for the row lock, so neither can skew the result.
+    private void checkUnassigned(Long id) {
+        long unassigned = locationStock.findUnassignedById(id).orElse(0L);
+        if (unassigned < 0) {
+            throw unassignedShortage();
+        }
+    }
+
+    static InvalidStockOperationException unassignedShortage() {
+        return new InvalidStockOperationException(Reason.INSUFFICIENT_STOCK,
+                "Insufficient stock outside locations; decrease a location instead");
+    }
+
+    // 🔹 An absolute stock edit (PUT/PATCH) must still cover the units held by open reservations
+    private static void checkReserved(Product product, int reserved) {
+        int floor = reserved + Math.max(0, product.getLowStockThreshold());
+        if (reserved > 0 && product.getStockQuantity() < floor) {
+            throw new InvalidStockOperationException(Reason.INSUFFICIENT_STOCK,
+                    reserved + " units are reserved, stock cannot be set below " + floor);
+        }
     }
 
     // 🔹 Helper method for reusability
     private void validateStock(Product product) {
-        if (product.getStockQuantity() < 0) {
-            throw new InvalidStockOperationException("Stock cannot be negative");
-        }
-        if (product.getLowStockThreshold() > 0 &&
-                product.getStockQuantity() < product.getLowStockThreshold()) {
-            throw new InvalidStockOperationException(
-                    "Stock quantity cannot be lower than the low-stock threshold (" + product.getLowStockThreshold() + ")"
-            );
+        InvalidStockOperationException invalid =
+                StockRules.invalidLevel(product.getStockQuantity(), product.getLowStockThreshold());
+        if (invalid != null) {
+            throw invalid;
         }
     }
 }
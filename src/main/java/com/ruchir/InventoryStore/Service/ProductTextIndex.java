@@ -0,0 +1,352 @@
+package com.ruchir.InventoryStore.Service;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+// In-memory inverted index over product name + description, ranked with BM25.
+//  - documents get ordinals in insertion order, so every posting list stays sorted by ordinal
+//    and queries merge/intersect plain arrays (no per-hit boxing)
+//  - re-indexing or removing a product only tombstones its old ordinal; dead ordinals are
+//    dropped from the postings once they make up a quarter of the index
+//  - a query matches products containing every token; the last token also matches as a prefix
+//    (search-as-you-type) unless the query ends with a separator, expanded to the
+//    maxPrefixTerms most frequent dictionary terms
+// Name tokens count NAME_WEIGHT times toward term frequency and document length (a simple BM25F).
+// One writer or many readers at a time.
+public class ProductTextIndex {
+
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+    private static final int NAME_WEIGHT = 3;
+    private static final int MAX_TOKEN_LENGTH = 64;
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+
+    // total = number of matching products; ids = the requested page, best first
+    public record Hits(long total, long[] ids) {
+        static final Hits NONE = new Hits(0, new long[0]);
+    }
+
+    private static final class Postings {
+        int[] docs = new int[2];
+        short[] freqs = new short[2];
+        int size;
+
+        void add(int doc, int freq) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                freqs = Arrays.copyOf(freqs, size * 2);
+            }
+            docs[size] = doc;
+            freqs[size] = (short) Math.min(freq, Short.MAX_VALUE);
+            size++;
+        }
+    }
+
+    // Matching ordinals (ascending) with their score for one query token
+    private static final class Matches {
+        final int[] docs;
+        final float[] scores;
+        final int size;
+
+        Matches(int[] docs, float[] scores, int size) {
+            this.docs = docs;
+            this.scores = scores;
+            this.size = size;
+        }
+    }
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final int maxPrefixTerms;
+    private final TreeMap<String, Postings> terms = new TreeMap<>();
+    private final Map<Long, Integer> ordinalById = new HashMap<>();
+    private final BitSet dead = new BitSet();
+    private long[] ids = new long[16];
+    private int[] lengths = new int[16];
+    private int next;
+    private int deadCount;
+    private long totalLength; // over live documents
+
+    public ProductTextIndex(int maxPrefixTerms) {
+        this.maxPrefixTerms = maxPrefixTerms;
+    }
+
+    // Lower-cased, accents stripped, split on anything that isn't a letter or digit
+    public static List<String> tokenize(String text) {
+        if (text == null || text.isEmpty()) {
+            return List.of();
+        }
+        String folded = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFKD)).replaceAll("");
+        List<String> tokens = new ArrayList<>();
+        for (String token : SEPARATORS.split(folded.toLowerCase(Locale.ROOT))) {
+            if (!token.isEmpty() && token.length() <= MAX_TOKEN_LENGTH) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    // Adds the product, replacing whatever was indexed for it before
+    public void put(long id, String name, String description) {
+        Map<String, Integer> freqs = new HashMap<>();
+        int length = count(name, NAME_WEIGHT, freqs) + count(description, 1, freqs);
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+            if (freqs.isEmpty()) {
+                return; // nothing searchable
+            }
+            if (next == ids.length) {
+                ids = Arrays.copyOf(ids, next * 2);
+                lengths = Arrays.copyOf(lengths, next * 2);
+            }
+            int doc = next++;
+            ids[doc] = id;
+            lengths[doc] = length;
+            totalLength += length;
+            ordinalById.put(id, doc);
+            freqs.forEach((term, freq) -> terms.computeIfAbsent(term, t -> new Postings()).add(doc, freq));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return ordinalById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Hits search(String query, int offset, int limit) {
+        List<String> tokens = new ArrayList<>(new LinkedHashSet<>(tokenize(query)));
+        if (tokens.isEmpty() || limit <= 0) {
+            return Hits.NONE;
+        }
+        boolean prefixLast = Character.isLetterOrDigit(query.charAt(query.length() - 1));
+        lock.readLock().lock();
+        try {
+            int live = ordinalById.size();
+            if (live == 0) {
+                return Hits.NONE;
+            }
+            float avgLength = (float) totalLength / live;
+            List<Matches> perToken = new ArrayList<>(tokens.size());
+            for (int i = 0; i < tokens.size(); i++) {
+                String token = tokens.get(i);
+                Matches matches = prefixLast && i == tokens.size() - 1
+                        ? prefixMatches(token, live, avgLength)
+                        : termMatches(terms.get(token), live, avgLength);
+                if (matches.size == 0) {
+                    return Hits.NONE;
+                }
+                perToken.add(matches);
+            }
+            // Rarest token first keeps every intermediate result small
+            perToken.sort(Comparator.comparingInt(m -> m.size));
+            Matches result = perToken.get(0);
+            for (int i = 1; i < perToken.size() && result.size > 0; i++) {
+                result = intersect(result, perToken.get(i));
+            }
+            return new Hits(result.size, top(result, offset, limit));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static int count(String text, int weight, Map<String, Integer> freqs) {
+        List<String> tokens = tokenize(text);
+        for (String token : tokens) {
+            freqs.merge(token, weight, Integer::sum);
+        }
+        return tokens.size() * weight;
+    }
+
+    private void removeLocked(long id) {
+        Integer doc = ordinalById.remove(id);
+        if (doc == null) {
+            return;
+        }
+        dead.set(doc);
+        deadCount++;
+        totalLength -= lengths[doc];
+        if (deadCount > 1024 && deadCount * 4 > next) {
+            compactLocked();
+        }
+    }
+
+    // Renumbers live documents densely (order preserved) and drops dead ones from every posting list
+    private void compactLocked() {
+        int[] remap = new int[next];
+        int live = 0;
+        for (int doc = 0; doc < next; doc++) {
+            if (dead.get(doc)) {
+                remap[doc] = -1;
+            } else {
+                remap[doc] = live;
+                ids[live] = ids[doc];
+                lengths[live] = lengths[doc];
+                live++;
+            }
+        }
+        for (Iterator<Postings> it = terms.values().iterator(); it.hasNext(); ) {
+            Postings postings = it.next();
+            int kept = 0;
+            for (int i = 0; i < postings.size; i++) {
+                int doc = remap[postings.docs[i]];
+                if (doc >= 0) {
+                    postings.docs[kept] = doc;
+                    postings.freqs[kept] = postings.freqs[i];
+                    kept++;
+                }
+            }
+            if (kept == 0) {
+                it.remove();
+            } else {
+                postings.size = kept;
+            }
+        }
+        ordinalById.replaceAll((id, doc) -> remap[doc]);
+        next = live;
+        dead.clear();
+        deadCount = 0;
+    }
+
+    private Matches termMatches(Postings postings, int live, float avgLength) {
+        if (postings == null) {
+            return new Matches(new int[0], new float[0], 0);
+        }
+        int df = Math.min(postings.size, live); // may still count tombstoned documents
+        float idf = (float) Math.log(1 + (live - df + 0.5) / (df + 0.5));
+        int[] docs = new int[postings.size];
+        float[] scores = new float[postings.size];
+        int size = 0;
+        for (int i = 0; i < postings.size; i++) {
+            int doc = postings.docs[i];
+            if (dead.get(doc)) {
+                continue;
+            }
+            float tf = postings.freqs[i];
+            float norm = K1 * (1 - B + B * lengths[doc] / avgLength);
+            docs[size] = doc;
+            scores[size] = idf * tf * (K1 + 1) / (tf + norm);
+            size++;
+        }
+        return new Matches(docs, scores, size);
+    }
+
+    // Union over the most frequent terms starting with the prefix; a product scores its best term
+    private Matches prefixMatches(String prefix, int live, float avgLength) {
+        SortedMap<String, Postings> range = terms.subMap(prefix, prefix + Character.MAX_VALUE);
+        PriorityQueue<Postings> mostFrequent = new PriorityQueue<>(Comparator.comparingInt(p -> p.size));
+        for (Postings postings : range.values()) {
+            mostFrequent.add(postings);
+            if (mostFrequent.size() > maxPrefixTerms) {
+                mostFrequent.poll();
+            }
+        }
+        Postings exact = terms.get(prefix);
+        if (exact != null && !mostFrequent.contains(exact)) {
+            mostFrequent.poll();
+            mostFrequent.add(exact);
+        }
+        List<Matches> parts = new ArrayList<>(mostFrequent.size());
+        for (Postings postings : mostFrequent) {
+            parts.add(termMatches(postings, live, avgLength));
+        }
+        if (parts.isEmpty()) {
+            return new Matches(new int[0], new float[0], 0);
+        }
+        // Pairwise rounds: log(k) passes over the hits instead of k
+        while (parts.size() > 1) {
+            List<Matches> merged = new ArrayList<>((parts.size() + 1) / 2);
+            for (int i = 0; i < parts.size(); i += 2) {
+                merged.add(i + 1 < parts.size() ? union(parts.get(i), parts.get(i + 1)) : parts.get(i));
+            }
+            parts = merged;
+        }
+        return parts.get(0);
+    }
+
+    private static Matches union(Matches a, Matches b) {
+        int[] docs = new int[a.size + b.size];
+        float[] scores = new float[a.size + b.size];
+        int i = 0, j = 0, n = 0;
+        while (i < a.size || j < b.size) {
+            if (j == b.size || (i < a.size && a.docs[i] < b.docs[j])) {
+                docs[n] = a.docs[i];
+                scores[n++] = a.scores[i++];
+            } else if (i == a.size || b.docs[j] < a.docs[i]) {
+                docs[n] = b.docs[j];
+                scores[n++] = b.scores[j++];
+            } else {
+                docs[n] = a.docs[i];
+                scores[n++] = Math.max(a.scores[i++], b.scores[j++]);
+            }
+        }
+        return new Matches(docs, scores, n);
+    }
+
+    private static Matches intersect(Matches a, Matches b) {
+        int[] docs = new int[Math.min(a.size, b.size)];
+        float[] scores = new float[docs.length];
+        int i = 0, j = 0, n = 0;
+        while (i < a.size && j < b.size) {
+            if (a.docs[i] < b.docs[j]) {
+                i++;
+            } else if (a.docs[i] > b.docs[j]) {
+                j++;
+            } else {
+                docs[n] = a.docs[i];
+                scores[n++] = a.scores[i++] + b.scores[j++];
+            }
+        }
+        return new Matches(docs, scores, n);
+    }
+
+    // Best offset+limit matches by score, ties by product id so pages are stable
+    private long[] top(Matches matches, int offset, int limit) {
+        int k = (int) Math.min((long) offset + limit, matches.size);
+        if (offset >= k) {
+            return new long[0];
+        }
+        Comparator<Integer> worstFirst = Comparator.<Integer>comparingDouble(i -> matches.scores[i])
+                .thenComparing(i -> ids[matches.docs[i]], Comparator.reverseOrder());
+        PriorityQueue<Integer> best = new PriorityQueue<>(k, worstFirst);
+        for (int i = 0; i < matches.size; i++) {
+            if (best.size() < k) {
+                best.add(i);
+                continue;
+            }
+            int worst = best.peek();
+            float score = matches.scores[i];
+            float worstScore = matches.scores[worst];
+            // compared on primitives first: most hits lose here without boxing
+            if (score > worstScore || (score == worstScore && ids[matches.docs[i]] < ids[matches.docs[worst]])) {
+                best.poll();
+                best.add(i);
+            }
+        }
+        long[] page = new long[k - offset];
+        for (int rank = k - 1; rank >= 0; rank--) {
+            int i = best.poll();
+            if (rank >= offset) {
+                page[rank - offset] = ids[matches.docs[i]];
+            }
+        }
+        return page;
+    }
+}
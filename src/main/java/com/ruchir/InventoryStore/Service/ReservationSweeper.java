@@ -0,0 +1,40 @@
+package com.ruchir.InventoryStore.Service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+// Hands the units of expired reservations back to available stock, a batch per transaction,
+// so an abandoned checkout costs no write beyond its hold. Instances can sweep side by side:
+// expired rows are locked while they are released.
+@Slf4j
+@Component
+public class ReservationSweeper {
+
+    private final ProductService productService;
+    private final int batchSize;
+
+    public ReservationSweeper(ProductService productService,
+                              @Value("${inventory.reservations.sweep-batch-size:500}") int batchSize) {
+        this.productService = productService;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.reservations.sweep-interval:5s}")
+    public void sweep() {
+        try {
+            int released;
+            int total = 0;
+            do {
+                released = productService.releaseExpiredReservations(batchSize);
+                total += released;
+            } while (released == batchSize);
+            if (total > 0) {
+                log.debug("Released {} expired stock reservations", total);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Reservation sweep failed, will retry: {}", e.getMessage());
+        }
+    }
+}
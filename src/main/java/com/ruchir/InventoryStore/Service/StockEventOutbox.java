@@ -0,0 +1,38 @@
+package com.ruchir.InventoryStore.Service;
+
+import com.ruchir.InventoryStore.dao.StockEventRepository;
+import com.ruchir.InventoryStore.event.ProductChangedEvent;
+import com.ruchir.InventoryStore.event.ProductChangedEvent.ChangeType;
+import com.ruchir.InventoryStore.model.StockEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.util.Objects;
+
+// Appends each stock change to the stock_event outbox. BEFORE_COMMIT runs inside the changing
+// transaction, so the event commits or rolls back together with the product row.
+@Component
+@RequiredArgsConstructor
+public class StockEventOutbox {
+
+    private final StockEventRepository repo;
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.type() == ChangeType.RESERVATION
+                || (event.type() == ChangeType.UPDATED && Objects.equals(event.oldQuantity(), event.newQuantity()))) {
+            return; // holds and name/description edits aren't stock events
+        }
+        repo.save(StockEvent.builder()
+                .productId(event.productId())
+                .type(event.type())
+                .oldQuantity(event.oldQuantity())
+                .newQuantity(event.newQuantity())
+                .version(event.version())
+                .createdAt(Instant.now())
+                .build());
+    }
+}
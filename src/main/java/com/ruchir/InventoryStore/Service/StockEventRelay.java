@@ -0,0 +1,170 @@
+package com.ruchir.InventoryStore.Service;
+
+import com.ruchir.InventoryStore.Exceptions.TooManyRequestsException;
+import com.ruchir.InventoryStore.dao.StockEventRepository;
+import com.ruchir.InventoryStore.model.StockEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Publishes the stock_event outbox and fans it out to feed consumers.
+//  - relay: assigns feed sequences to committed outbox rows, a batch per transaction, in commit order
+//  - dispatch: pushes newly published events to subscribers (long polls, SSE streams); a subscriber
+//    that is behind (resumed from an old offset) is caught up from the table one page per tick
+//  - compaction: superseded events older than the retention are deleted, the latest per product stays
+// Dispatch re-reads published events from the table, so consumers on every instance see events
+// published by any instance's relay.
+@Slf4j
+@Component
+public class StockEventRelay {
+
+    // A consumer positioned after `cursor`. send() gets events in sequence order, all after the cursor,
+    // and returns false when the subscription is finished.
+    public abstract static class Subscription {
+        private final ReentrantLock lock = new ReentrantLock();
+        private volatile long cursor;
+
+        protected Subscription(long after) {
+            this.cursor = after;
+        }
+
+        protected abstract boolean send(List<StockEvent> events) throws Exception;
+    }
+
+    private final StockEventRepository repo;
+    private final TransactionTemplate tx;
+    private final int batchSize;
+    private final int maxSubscribers;
+    private final Duration retention;
+    private final Set<Subscription> subscriptions = ConcurrentHashMap.newKeySet();
+    private volatile long lastDispatched;
+
+    public StockEventRelay(StockEventRepository repo,
+                           TransactionTemplate tx,
+                           @Value("${inventory.stock-events.batch-size:500}") int batchSize,
+                           @Value("${inventory.stock-events.max-subscribers:256}") int maxSubscribers,
+                           @Value("${inventory.stock-events.retention:7d}") Duration retention) {
+        this.repo = repo;
+        this.tx = tx;
+        this.batchSize = batchSize;
+        this.maxSubscribers = maxSubscribers;
+        this.retention = retention;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        lastDispatched = repo.findMaxSequence();
+    }
+
+    // catchUpNow: answer from the table on the caller's thread (long polls); otherwise the relay
+    // thread catches the subscriber up on its next tick (streams, whose backlog may be large)
+    public void subscribe(Subscription subscription, boolean catchUpNow) {
+        if (subscriptions.size() >= maxSubscribers) {
+            throw new TooManyRequestsException("Too many stock event subscribers");
+        }
+        subscriptions.add(subscription); // registered before reading, so no publish can slip between
+        if (catchUpNow) {
+            catchUp(subscription);
+        }
+    }
+
+    public void unsubscribe(Subscription subscription) {
+        subscriptions.remove(subscription);
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.stock-events.relay-interval:100ms}")
+    public void relay() {
+        try {
+            Integer published;
+            do {
+                published = tx.execute(status -> publishBatch());
+            } while (published != null && published == batchSize);
+            dispatch();
+        } catch (RuntimeException e) {
+            log.warn("Stock event relay failed, will retry: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.stock-events.compaction-interval:1h}", initialDelayString = "${inventory.stock-events.compaction-interval:1h}")
+    public void compact() {
+        Integer removed = tx.execute(status -> repo.compact(Instant.now().minus(retention)));
+        if (removed != null && removed > 0) {
+            log.info("Compacted {} superseded stock events", removed);
+        }
+    }
+
+    private int publishBatch() {
+        List<StockEvent> pending = repo.findUnpublishedForUpdate(Limit.of(batchSize));
+        if (pending.isEmpty()) {
+            return 0;
+        }
+        long next = repo.findMaxSequence(); // read after locking: a concurrent relay has committed by now
+        for (StockEvent event : pending) {
+            event.setSequence(++next);
+        }
+        return pending.size(); // dirty rows are flushed as batched UPDATEs on commit
+    }
+
+    private void dispatch() {
+        if (subscriptions.isEmpty()) {
+            lastDispatched = repo.findMaxSequence();
+            return;
+        }
+        List<StockEvent> fresh;
+        do {
+            long previous = lastDispatched;
+            fresh = repo.findBySequenceGreaterThanOrderBySequenceAsc(previous, Limit.of(batchSize));
+            for (Subscription subscription : subscriptions) {
+                if (subscription.cursor >= previous) {
+                    deliver(subscription, fresh);
+                } else {
+                    catchUp(subscription);
+                }
+            }
+            if (!fresh.isEmpty()) {
+                lastDispatched = fresh.get(fresh.size() - 1).getSequence();
+            }
+        } while (fresh.size() == batchSize);
+    }
+
+    // One page from the table after the subscriber's cursor
+    private void catchUp(Subscription subscription) {
+        deliver(subscription, repo.findBySequenceGreaterThanOrderBySequenceAsc(subscription.cursor, Limit.of(batchSize)));
+    }
+
+    private void deliver(Subscription subscription, List<StockEvent> events) {
+        subscription.lock.lock();
+        try {
+            if (!subscriptions.contains(subscription)) {
+                return;
+            }
+            long cursor = subscription.cursor;
+            List<StockEvent> unseen = events.stream().filter(e -> e.getSequence() > cursor).toList();
+            if (unseen.isEmpty()) {
+                return;
+            }
+            boolean more = subscription.send(unseen);
+            subscription.cursor = unseen.get(unseen.size() - 1).getSequence();
+            if (!more) {
+                subscriptions.remove(subscription);
+            }
+        } catch (Exception e) {
+            log.debug("Dropping stock event subscriber: {}", e.getMessage());
+            subscriptions.remove(subscription);
+        } finally {
+            subscription.lock.unlock();
+        }
+    }
+}
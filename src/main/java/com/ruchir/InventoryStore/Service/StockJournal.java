@@ -0,0 +1,186 @@
+package com.ruchir.InventoryStore.Service;
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+// Append-only local journal for the in-memory stock ledger.
+// Every accepted adjustment is written as a fixed-size record (seq, productId, delta) before
+// it becomes visible. Records go into segment files named after their first sequence number;
+// a segment is rotated on every drain and deleted once its deltas are committed to the DB.
+public class StockJournal implements Closeable {
+
+    // Net deltas of the records since the last drain, plus the highest sequence they cover
+    public record Batch(Map<Long, Integer> deltas, long lastSequence) {
+        public boolean isEmpty() {
+            return deltas.isEmpty();
+        }
+    }
+
+    private static final String PREFIX = "journal-";
+    private static final String SUFFIX = ".log";
+
+    private final Path dir;
+    private final boolean fsync;
+    // Not synchronized: append does file I/O on request threads, which would pin a virtual thread's carrier
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private FileOutputStream segmentFile;
+    private DataOutputStream segment;
+    private Path segmentPath;
+    private long lastSequence;
+    private Map<Long, Integer> pending = new HashMap<>();
+
+    public StockJournal(Path dir, boolean fsync) throws IOException {
+        this.dir = dir;
+        this.fsync = fsync;
+        Files.createDirectories(dir);
+    }
+
+    // Reads every segment and returns the net deltas of records newer than the checkpoint.
+    // Must be called once, before the first append.
+    public Batch recover(long checkpoint) throws IOException {
+        lock.lock();
+        try {
+            Map<Long, Integer> deltas = new HashMap<>();
+            long maxSequence = checkpoint;
+            for (Path file : segments()) {
+                try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+                    while (true) {
+                        long seq;
+                        long productId;
+                        int delta;
+                        try {
+                            seq = in.readLong();
+                            productId = in.readLong();
+                            delta = in.readInt();
+                        } catch (EOFException e) {
+                            break; // end of segment (a torn last record is dropped: it was never acknowledged)
+                        }
+                        if (seq > checkpoint) {
+                            deltas.merge(productId, delta, Integer::sum);
+                        }
+                        maxSequence = Math.max(maxSequence, seq);
+                    }
+                }
+            }
+            deltas.values().removeIf(d -> d == 0);
+            lastSequence = maxSequence;
+            return new Batch(deltas, maxSequence);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long append(long productId, int delta) throws IOException {
+        lock.lock();
+        try {
+            if (segment == null) {
+                openSegment();
+            }
+            long seq = ++lastSequence;
+            segment.writeLong(seq);
+            segment.writeLong(productId);
+            segment.writeInt(delta);
+            segment.flush(); // hand the record to the OS: survives a process crash
+            if (fsync) {
+                segmentFile.getFD().sync(); // survives power loss, at a large throughput cost
+            }
+            pending.merge(productId, delta, Integer::sum);
+            return seq;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Takes the pending deltas for flushing and starts a new segment for later records
+    public Batch drain() throws IOException {
+        lock.lock();
+        try {
+            if (pending.isEmpty()) {
+                return new Batch(Map.of(), lastSequence);
+            }
+            Batch batch = new Batch(pending, lastSequence);
+            pending = new HashMap<>();
+            closeSegment();
+            return batch;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Flush failed: put the deltas back so the next drain retries them (segments are kept)
+    public void restore(Batch batch) {
+        lock.lock();
+        try {
+            batch.deltas().forEach((id, delta) -> pending.merge(id, delta, Integer::sum));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Flush committed: every closed segment is now covered by the DB checkpoint.
+    // Callers must not run flushes concurrently (drain -> commit -> committed is one unit).
+    public void committed() throws IOException {
+        lock.lock();
+        try {
+            for (Path file : segments()) {
+                if (!file.equals(segmentPath)) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void deleteAll() throws IOException {
+        lock.lock();
+        try {
+            closeSegment();
+            for (Path file : segments()) {
+                Files.deleteIfExists(file);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            closeSegment();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void openSegment() throws IOException {
+        segmentPath = dir.resolve(PREFIX + String.format("%020d", lastSequence + 1) + SUFFIX);
+        segmentFile = new FileOutputStream(segmentPath.toFile(), true);
+        segment = new DataOutputStream(new BufferedOutputStream(segmentFile, 4096));
+    }
+
+    private void closeSegment() throws IOException {
+        if (segment != null) {
+            segment.close();
+            segment = null;
+            segmentFile = null;
+            segmentPath = null;
+        }
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(f -> {
+                        String name = f.getFileName().toString();
+                        return name.startsWith(PREFIX) && name.endsWith(SUFFIX);
+                    })
+                    .sorted()
+                    .toList();
+        }
+    }
+}
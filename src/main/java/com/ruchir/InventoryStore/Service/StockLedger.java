@@ -0,0 +1,228 @@
+package com.ruchir.InventoryStore.Service;
+
+import com.ruchir.InventoryStore.Exceptions.InvalidStockOperationException;
+import com.ruchir.InventoryStore.Exceptions.ResourceNotFoundException;
+import com.ruchir.InventoryStore.dao.ProductRepository;
+import com.ruchir.InventoryStore.dao.StockLedgerCheckpointRepository;
+import com.ruchir.InventoryStore.event.ProductChangedEvent;
+import com.ruchir.InventoryStore.model.Product;
+import com.ruchir.InventoryStore.model.StockLedgerCheckpoint;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+// In-memory, authoritative stock counters for the "ledger" stock engine.
+//  - counters are loaded lazily from the product table and guarded by striped locks (by product id)
+//  - every accepted adjustment is journaled before it is acknowledged
+//  - net deltas are flushed to the product table in periodic JDBC batches, together with the
+//    journal checkpoint, so replay after a crash applies each record exactly once
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "inventory.stock.engine", havingValue = "ledger")
+public class StockLedger {
+
+    private static final String CHECKPOINT = "stock-ledger";
+
+    private static final class Counter {
+        volatile int quantity;
+        final int reserved;
+        final int threshold;
+
+        Counter(int quantity, int reserved, int threshold) {
+            this.quantity = quantity;
+            this.reserved = reserved;
+            this.threshold = threshold;
+        }
+    }
+
+    private final ProductRepository repo;
+    private final StockLedgerCheckpointRepository checkpoints;
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate tx;
+    private final ApplicationEventPublisher events;
+    private final StockJournal journal;
+    private final ReentrantLock[] stripes;
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final Map<Long, Counter> counters = new ConcurrentHashMap<>();
+    private final Set<Long> stale = ConcurrentHashMap.newKeySet();
+
+    public StockLedger(ProductRepository repo,
+                       StockLedgerCheckpointRepository checkpoints,
+                       JdbcTemplate jdbc,
+                       TransactionTemplate tx,
+                       ApplicationEventPublisher events,
+                       @Value("${inventory.stock.ledger.journal-dir:data/stock-ledger}") String journalDir,
+                       @Value("${inventory.stock.ledger.fsync:false}") boolean fsync,
+                       @Value("${inventory.stock.ledger.stripes:64}") int stripeCount) throws IOException {
+        this.repo = repo;
+        this.checkpoints = checkpoints;
+        this.jdbc = jdbc;
+        this.tx = tx;
+        this.events = events;
+        this.journal = new StockJournal(Paths.get(journalDir), fsync);
+        this.stripes = new ReentrantLock[Integer.highestOneBit(Math.max(1, stripeCount) * 2 - 1)];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    // Replays journal records the DB hasn't seen yet, before any request is served
+    @PostConstruct
+    void recover() throws IOException {
+        long checkpoint = checkpoints.findById(CHECKPOINT).map(StockLedgerCheckpoint::getLastSequence).orElse(0L);
+        StockJournal.Batch replay = journal.recover(checkpoint);
+        if (replay.lastSequence() > checkpoint) {
+            tx.executeWithoutResult(status -> write(replay));
+            log.info("Stock ledger replayed journal up to #{} ({} products)", replay.lastSequence(), replay.deltas().size());
+        }
+        journal.committed();
+    }
+
+    // Applies a delta in memory; throws the same errors as the JPA engine. Returns the new quantity.
+    public int adjust(Long id, int delta) {
+        ReentrantLock lock = stripe(id);
+        lock.lock();
+        try {
+            if (stale.remove(id)) {
+                flush(); // pending deltas must reach the row before it is re-read
+                counters.remove(id);
+            }
+            Counter counter = counters.get(id);
+            if (counter == null) {
+                ProductRepository.StockLevel level = repo.findStockLevelById(id)
+                        .orElseThrow(() -> new ResourceNotFoundException("Product not found: " + id));
+                counter = new Counter(level.getStockQuantity(), level.getReservedQuantity(), level.getLowStockThreshold());
+                counters.put(id, counter);
+            }
+            InvalidStockOperationException rejection =
+                    StockRules.rejection(counter.quantity - counter.reserved, counter.threshold, delta);
+            if (rejection != null) {
+                throw rejection;
+            }
+            journal.append(id, delta);
+            counter.quantity += delta;
+            return counter.quantity;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to journal stock adjustment", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Live quantity if the product is held by the ledger, otherwise null (DB value is current)
+    public Integer quantity(Long id) {
+        Counter counter = counters.get(id);
+        return counter == null ? null : counter.quantity;
+    }
+
+    // A hold was released or expired outside the ledger: the counter's reserved units are too high
+    // (only ever too strict), so it is reloaded on the product's next adjustment
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.type() == ProductChangedEvent.ChangeType.RESERVATION && counters.containsKey(event.productId())) {
+            stale.add(event.productId());
+        }
+    }
+
+    // Runs a write that bypasses the ledger (absolute updates, deletes, batches): the products'
+    // stripes are locked, pending deltas flushed and their counters dropped so they reload afterwards.
+    public <T> T exclusive(Collection<Long> ids, Supplier<T> work) {
+        int[] indexes = ids.stream().filter(Objects::nonNull).mapToInt(this::stripeIndex).distinct().sorted().toArray();
+        for (int index : indexes) {
+            stripes[index].lock();
+        }
+        try {
+            flush();
+            ids.forEach(id -> {
+                if (id != null) counters.remove(id);
+            });
+            return work.get();
+        } finally {
+            for (int i = indexes.length - 1; i >= 0; i--) {
+                stripes[indexes[i]].unlock();
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.stock.ledger.flush-interval:200ms}")
+    public void scheduledFlush() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.warn("Stock ledger flush failed, will retry: {}", e.getMessage());
+        }
+    }
+
+    // Writes the net deltas since the last flush in one transaction (one batched UPDATE per product)
+    public void flush() {
+        flushLock.lock();
+        try {
+            StockJournal.Batch batch = journal.drain();
+            if (batch.isEmpty()) {
+                return;
+            }
+            try {
+                tx.executeWithoutResult(status -> write(batch));
+            } catch (RuntimeException e) {
+                journal.restore(batch);
+                throw e;
+            }
+            journal.committed();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Stock ledger journal error", e);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    void shutdown() throws IOException {
+        try {
+            flush();
+        } finally {
+            journal.close();
+        }
+    }
+
+    private void write(StockJournal.Batch batch) {
+        List<Object[]> rows = new TreeMap<>(batch.deltas()).entrySet().stream()
+                .map(e -> new Object[]{e.getValue(), e.getKey()})
+                .toList();
+        jdbc.batchUpdate("UPDATE product SET stock_quantity = stock_quantity + ?, version = version + 1 WHERE id = ?", rows);
+        checkpoints.save(new StockLedgerCheckpoint(CHECKPOINT, batch.lastSequence()));
+        // Published inside the flush transaction: the stock event outbox rows commit with the deltas,
+        // one coalesced event (old -> new) per product per flush
+        for (Product product : repo.findAllById(batch.deltas().keySet())) {
+            int newQty = product.getStockQuantity();
+            int oldQty = newQty - batch.deltas().get(product.getId());
+            events.publishEvent(new ProductChangedEvent(product.getId(), ProductChangedEvent.ChangeType.STOCK,
+                    oldQty, newQty, product.getVersion()));
+        }
+    }
+
+    private ReentrantLock stripe(Long id) {
+        return stripes[stripeIndex(id)];
+    }
+
+    private int stripeIndex(Long id) {
+        long h = id * 0x9E3779B97F4A7C15L;
+        return (int) (h >>> 32) & (stripes.length - 1);
+    }
+}
@@ -0,0 +1,47 @@
+package com.ruchir.InventoryStore.Service;
+
+import com.ruchir.InventoryStore.Exceptions.InvalidStockOperationException;
+import com.ruchir.InventoryStore.Exceptions.InvalidStockOperationException.Reason;
+
+// Stock rules shared by every stock engine (conditional UPDATE, batches, in-memory ledger)
+final class StockRules {
+
+    private StockRules() {
+    }
+
+    // null means the delta is allowed: new quantity must stay >= 0 and >= the low-stock threshold
+    static String rejectionReason(int current, int threshold, int delta) {
+        InvalidStockOperationException rejection = rejection(current, threshold, delta);
+        return rejection == null ? null : rejection.getMessage();
+    }
+
+    // Rule for an absolute stock level (create, update, import), or null when it is allowed
+    static InvalidStockOperationException invalidLevel(int stockQuantity, int threshold) {
+        if (stockQuantity < 0) {
+            return new InvalidStockOperationException("Stock cannot be negative");
+        }
+        if (threshold > 0 && stockQuantity < threshold) {
+            return new InvalidStockOperationException(Reason.THRESHOLD_VIOLATION,
+                    "Stock quantity cannot be lower than the low-stock threshold (" + threshold + ")");
+        }
+        return null;
+    }
+
+    // Same rule as an exception ready to throw, or null when the delta is allowed
+    static InvalidStockOperationException rejection(int current, int threshold, int delta) {
+        int newQty = current + delta;
+        if (newQty >= 0 && newQty >= threshold) {
+            return null;
+        }
+        if (delta < 0) {
+            return current < -delta
+                    ? new InvalidStockOperationException(Reason.INSUFFICIENT_STOCK, "Insufficient stock available")
+                    : new InvalidStockOperationException(Reason.THRESHOLD_VIOLATION,
+                    "Cannot decrease: stock would go below threshold (" + threshold + ")");
+        }
+        return newQty < 0
+                ? new InvalidStockOperationException(Reason.INVALID_REQUEST, "Stock cannot be negative")
+                : new InvalidStockOperationException(Reason.THRESHOLD_VIOLATION,
+                "Stock quantity cannot be lower than the low-stock threshold (" + threshold + ")");
+    }
+}
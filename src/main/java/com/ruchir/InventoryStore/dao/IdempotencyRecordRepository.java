@@ -0,0 +1,43 @@
+package com.ruchir.InventoryStore.dao;
+
+import com.ruchir.InventoryStore.model.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    // Claims the key for a running request: 1 if this caller owns it, 0 if a row already exists
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO idempotency_record (idempotency_key, fingerprint, status, expires_at) " +
+            "VALUES (:key, :fingerprint, 0, :expiresAt) ON CONFLICT DO NOTHING", nativeQuery = true)
+    int claim(@Param("key") String key, @Param("fingerprint") String fingerprint, @Param("expiresAt") Instant expiresAt);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE IdempotencyRecord r SET r.status = :status, r.contentType = :contentType, r.location = :location, " +
+            "r.body = :body, r.expiresAt = :expiresAt WHERE r.idempotencyKey = :key")
+    int complete(@Param("key") String key, @Param("status") int status, @Param("contentType") String contentType,
+                 @Param("location") String location, @Param("body") byte[] body, @Param("expiresAt") Instant expiresAt);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.idempotencyKey = :key")
+    int release(@Param("key") String key);
+
+    // Also frees keys left claimed by an instance that died mid-request
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.expiresAt < :now")
+    int deleteExpired(@Param("now") Instant now);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.idempotencyKey = :key AND r.expiresAt < :now")
+    int deleteExpired(@Param("key") String key, @Param("now") Instant now);
+}
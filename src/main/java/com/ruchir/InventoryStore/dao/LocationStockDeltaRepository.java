@@ -0,0 +1,31 @@
+package com.ruchir.InventoryStore.dao;
+
+import com.ruchir.InventoryStore.model.LocationStockDelta;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface LocationStockDeltaRepository extends JpaRepository<LocationStockDelta, Long> {
+
+    // Oldest pending deltas, locked so rollups on other instances wait and then skip them
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT d FROM LocationStockDelta d ORDER BY d.id")
+    List<LocationStockDelta> findPendingForUpdate(Limit limit);
+
+    // stockQuantity plus the committed location adjustments not yet rolled into it. One statement,
+    // so a rollup committing in between can't count a delta twice or not at all.
+    @Query("SELECT p.stockQuantity + COALESCE((SELECT SUM(d.delta) FROM LocationStockDelta d WHERE d.productId = p.id), 0) " +
+            "FROM Product p WHERE p.id = :productId")
+    Optional<Long> findCurrentTotal(@Param("productId") Long productId);
+
+    @Modifying
+    @Query("DELETE FROM LocationStockDelta d WHERE d.productId = :productId")
+    int removeByProductId(@Param("productId") Long productId);
+}
@@ -0,0 +1,49 @@
+package com.ruchir.InventoryStore.dao;
+
+import com.ruchir.InventoryStore.model.LocationStock;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface LocationStockRepository extends JpaRepository<LocationStock, Long> {
+
+    List<LocationStock> findByProductIdOrderByLocation(Long productId);
+
+    Optional<LocationStock> findByProductIdAndLocation(Long productId, String location);
+
+    // Units product-level writes may still spend: the total (stockQuantity + pending location
+    // deltas) minus the units assigned to locations and the units held by reservations. One statement,
+    // like LocationStockDeltaRepository.findCurrentTotal.
+    @Query("SELECT p.stockQuantity - p.reservedQuantity " +
+            "+ COALESCE((SELECT SUM(d.delta) FROM LocationStockDelta d WHERE d.productId = p.id), 0) " +
+            "- COALESCE((SELECT SUM(s.quantity) FROM LocationStock s WHERE s.productId = p.id), 0) " +
+            "FROM Product p WHERE p.id = :productId")
+    Optional<Long> findUnassignedById(@Param("productId") Long productId);
+
+    // Located units minus pending deltas per product, for products that have locations: [productId, Long]
+    @Query("SELECT s.productId, SUM(s.quantity) " +
+            "- COALESCE((SELECT SUM(d.delta) FROM LocationStockDelta d WHERE d.productId = s.productId), 0) " +
+            "FROM LocationStock s WHERE s.productId IN :productIds GROUP BY s.productId")
+    List<Object[]> findAssignedByProductIdIn(@Param("productIds") Collection<Long> productIds);
+
+    // Conditional UPDATE of one location's row: 0 if the location has no row yet or would go negative
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE LocationStock s SET s.quantity = s.quantity + :delta " +
+            "WHERE s.productId = :productId AND s.location = :location AND s.quantity + :delta >= 0")
+    int adjust(@Param("productId") Long productId, @Param("location") String location, @Param("delta") int delta);
+
+    // First stock at a location: an empty row, left as is if a concurrent adjustment just created it
+    @Modifying
+    @Query(value = "INSERT INTO location_stock (product_id, location, quantity) VALUES (:productId, :location, 0) " +
+            "ON CONFLICT DO NOTHING", nativeQuery = true)
+    int createIfAbsent(@Param("productId") Long productId, @Param("location") String location);
+
+    @Modifying
+    @Query("DELETE FROM LocationStock s WHERE s.productId = :productId")
+    int removeByProductId(@Param("productId") Long productId);
+}
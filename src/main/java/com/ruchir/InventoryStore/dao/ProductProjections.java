@@ -0,0 +1,13 @@
+package com.ruchir.InventoryStore.dao;
+
+import com.ruchir.InventoryStore.dto.ProductFields;
+
+import java.util.List;
+import java.util.Map;
+
+// Reads that select only the columns of a sparse fieldset; implemented in ProductProjectionsImpl
+public interface ProductProjections {
+
+    // Keyset page like findByIdGreaterThanOrderByIdAsc; one map per row, keyed like the JSON
+    List<Map<String, Object>> findPageFields(long afterId, int limit, ProductFields fields);
+}
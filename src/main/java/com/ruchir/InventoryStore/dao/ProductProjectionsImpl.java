@@ -0,0 +1,47 @@
+package com.ruchir.InventoryStore.dao;
+
+import com.ruchir.InventoryStore.dto.ProductFields;
+import com.ruchir.InventoryStore.model.Product;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TupleElement;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import lombok.RequiredArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// The field set is only known per request, so the SELECT list is built with the Criteria API.
+// Tuples are plain values: nothing enters the persistence context and no Product is built.
+@RequiredArgsConstructor
+class ProductProjectionsImpl implements ProductProjections {
+
+    private final EntityManager entityManager;
+
+    @Override
+    public List<Map<String, Object>> findPageFields(long afterId, int limit, ProductFields fields) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Product> product = query.from(Product.class);
+        query.multiselect(fields.names().stream()
+                        .<Selection<?>>map(name -> product.get(name).alias(name))
+                        .toList())
+                .where(cb.greaterThan(product.get("id"), afterId))
+                .orderBy(cb.asc(product.get("id")));
+        List<Tuple> rows = entityManager.createQuery(query).setMaxResults(limit).getResultList();
+        List<Map<String, Object>> page = new ArrayList<>(rows.size());
+        for (Tuple row : rows) {
+            Map<String, Object> values = new LinkedHashMap<>(fields.names().size() * 2);
+            for (TupleElement<?> element : row.getElements()) {
+                values.put(element.getAlias(), row.get(element));
+            }
+            page.add(values);
+        }
+        return page;
+    }
+}
@@ -1,9 +1,102 @@
 package com.ruchir.InventoryStore.dao;
 
 import com.ruchir.InventoryStore.model.Product;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+public interface ProductRepository extends JpaRepository<Product, Long>, ProductProjections {
+    // Low stock = at or below the product's own threshold (the stock rules never let it go lower).
+    // Compares two columns of the same row, so no B-tree index can serve it: a full scan, which is
+    // why only LowStockIndex's periodic rebuild runs it.
+    @Query("SELECT p.id FROM Product p WHERE p.stockQuantity <= p.lowStockThreshold")
+    List<Long> findLowStockIds();
+
+    // Keyset page: served straight from the primary-key index, no OFFSET scan
+    List<Product> findByIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
+
+    // Server-side cursor for exports; callers must consume it inside a transaction and close it
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT p FROM Product p ORDER BY p.id")
+    Stream<Product> streamAllOrderedById();
+
+    // Text the search index is built from; a projection, so rows never enter the persistence context
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT p.id AS id, p.name AS name, p.description AS description FROM Product p ORDER BY p.id")
+    Stream<SearchText> streamSearchText();
+
+    @Query("SELECT p.id AS id, p.name AS name, p.description AS description FROM Product p WHERE p.id IN :ids")
+    List<SearchText> findSearchTextByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Applies a stock delta in a single conditional UPDATE. The row lock taken by the
+    // statement serializes concurrent adjustments, so no update is lost. Returns the
+    // number of rows changed: 0 means the product is missing or the new available (unreserved)
+    // quantity would go negative / below the product's low-stock threshold. Bumps the version
+    // like an entity update would, so If-Match/ETag checks see the change.
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Product p SET p.stockQuantity = p.stockQuantity + :delta, p.version = p.version + 1 " +
+            "WHERE p.id = :id " +
+            "AND p.stockQuantity - p.reservedQuantity + :delta >= 0 " +
+            "AND p.stockQuantity - p.reservedQuantity + :delta >= p.lowStockThreshold")
+    int adjustStock(@Param("id") Long id, @Param("delta") int delta);
+
+    // Reservation holds, each one short conditional UPDATE; the row is never locked for the length
+    // of a checkout. reserveStock applies the adjustStock rule to the available quantity.
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Product p SET p.reservedQuantity = p.reservedQuantity + :qty, p.version = p.version + 1 " +
+            "WHERE p.id = :id " +
+            "AND p.stockQuantity - p.reservedQuantity - :qty >= 0 " +
+            "AND p.stockQuantity - p.reservedQuantity - :qty >= p.lowStockThreshold")
+    int reserveStock(@Param("id") Long id, @Param("qty") int qty);
+
+    // Confirmed hold: the units leave stock and the hold together, available stock is unchanged
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Product p SET p.stockQuantity = p.stockQuantity - :qty, " +
+            "p.reservedQuantity = p.reservedQuantity - :qty, p.version = p.version + 1 WHERE p.id = :id")
+    int commitReserved(@Param("id") Long id, @Param("qty") int qty);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Product p SET p.reservedQuantity = p.reservedQuantity - :qty, p.version = p.version + 1 " +
+            "WHERE p.id = :id")
+    int releaseReserved(@Param("id") Long id, @Param("qty") int qty);
+
+    @Query("SELECT p.stockQuantity FROM Product p WHERE p.id = :id")
+    Optional<Integer> findStockQuantityById(@Param("id") Long id);
+
+    @Query("SELECT p.stockQuantity AS stockQuantity, p.reservedQuantity AS reservedQuantity, " +
+            "p.lowStockThreshold AS lowStockThreshold, p.version AS version FROM Product p WHERE p.id = :id")
+    Optional<StockLevel> findStockLevelById(@Param("id") Long id);
+
+    // Locks the rows in primary-key order so concurrent batches can't deadlock each other.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Product p WHERE p.id IN :ids ORDER BY p.id")
+    List<Product> findAllByIdForUpdate(@Param("ids") Collection<Long> ids);
+
+    interface StockLevel {
+        int getStockQuantity();
+        int getReservedQuantity();
+        int getLowStockThreshold();
+        long getVersion();
+    }
 
-public interface ProductRepository extends JpaRepository<Product, Long> {
-    List<Product> findByStockQuantityLessThan(int threshold);
+    interface SearchText {
+        Long getId();
+        String getName();
+        String getDescription();
+    }
 }
@@ -0,0 +1,33 @@
+package com.ruchir.InventoryStore.dao;
+
+import com.ruchir.InventoryStore.model.StockEvent;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface StockEventRepository extends JpaRepository<StockEvent, Long> {
+
+    // Unpublished outbox rows, locked so relays on other instances wait instead of double-publishing
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT e FROM StockEvent e WHERE e.sequence IS NULL ORDER BY e.id")
+    List<StockEvent> findUnpublishedForUpdate(Limit limit);
+
+    @Query("SELECT COALESCE(MAX(e.sequence), 0) FROM StockEvent e")
+    long findMaxSequence();
+
+    List<StockEvent> findBySequenceGreaterThanOrderBySequenceAsc(long after, Limit limit);
+
+    // Log compaction: drops published events older than the cutoff that a newer event of the same
+    // product supersedes. The latest event per product is always kept.
+    @Modifying
+    @Query("DELETE FROM StockEvent e WHERE e.sequence IS NOT NULL AND e.createdAt < :cutoff " +
+            "AND EXISTS (SELECT 1 FROM StockEvent n WHERE n.productId = e.productId AND n.sequence > e.sequence)")
+    int compact(@Param("cutoff") Instant cutoff);
+}
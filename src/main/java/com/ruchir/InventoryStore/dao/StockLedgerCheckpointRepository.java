@@ -0,0 +1,7 @@
+package com.ruchir.InventoryStore.dao;
+
+import com.ruchir.InventoryStore.model.StockLedgerCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface StockLedgerCheckpointRepository extends JpaRepository<StockLedgerCheckpoint, String> {
+}
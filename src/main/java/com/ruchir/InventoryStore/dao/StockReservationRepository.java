@@ -0,0 +1,30 @@
+package com.ruchir.InventoryStore.dao;
+
+import com.ruchir.InventoryStore.model.StockReservation;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface StockReservationRepository extends JpaRepository<StockReservation, Long> {
+
+    // Expired holds, locked: a confirm/release racing the sweep waits for it and then finds the row gone
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM StockReservation r WHERE r.expiresAt <= :now ORDER BY r.id")
+    List<StockReservation> findExpiredForUpdate(@Param("now") Instant now, Limit limit);
+
+    // 1 for exactly one of any concurrent confirm/release/sweep of the same hold, 0 for the others
+    @Modifying
+    @Query("DELETE FROM StockReservation r WHERE r.id = :id")
+    int removeById(@Param("id") Long id);
+
+    @Modifying
+    @Query("DELETE FROM StockReservation r WHERE r.productId = :productId")
+    int removeByProductId(@Param("productId") Long productId);
+}
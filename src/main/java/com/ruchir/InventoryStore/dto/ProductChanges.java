@@ -0,0 +1,17 @@
+package com.ruchir.InventoryStore.dto;
+
+import com.ruchir.InventoryStore.model.Product;
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductChanges {
+    private String version; // pass back as ?since= for the next delta
+    private boolean reset; // since was too old or from another instance: reload the full list
+    private List<Product> products; // created or changed, current state
+    private List<Long> deleted;
+}
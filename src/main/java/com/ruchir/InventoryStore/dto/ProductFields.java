@@ -0,0 +1,67 @@
+package com.ruchir.InventoryStore.dto;
+
+import com.ruchir.InventoryStore.Exceptions.InvalidStockOperationException;
+import com.ruchir.InventoryStore.model.Product;
+
+import java.util.*;
+import java.util.function.Function;
+
+// Sparse fieldset for product reads (?fields=name,stockQuantity): which Product attributes to
+// return, in Product's own order. id is always included, it's the paging cursor.
+public final class ProductFields {
+
+    private static final Map<String, Function<Product, Object>> ATTRIBUTES = new LinkedHashMap<>();
+
+    static {
+        ATTRIBUTES.put("id", Product::getId);
+        ATTRIBUTES.put("name", Product::getName);
+        ATTRIBUTES.put("description", Product::getDescription);
+        ATTRIBUTES.put("stockQuantity", Product::getStockQuantity);
+        ATTRIBUTES.put("lowStockThreshold", Product::getLowStockThreshold);
+        ATTRIBUTES.put("imageUrl", Product::getImageUrl);
+        ATTRIBUTES.put("reservedQuantity", Product::getReservedQuantity);
+        ATTRIBUTES.put("version", Product::getVersion);
+    }
+
+    private final List<String> names;
+
+    private ProductFields(List<String> names) {
+        this.names = names;
+    }
+
+    // null for a missing/blank parameter (= the full Product)
+    public static ProductFields parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return null;
+        }
+        Set<String> requested = new HashSet<>();
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (!name.isEmpty() && !ATTRIBUTES.containsKey(name)) {
+                throw new InvalidStockOperationException("Unknown field '" + name + "', expected any of " + ATTRIBUTES.keySet());
+            }
+            requested.add(name);
+        }
+        List<String> names = ATTRIBUTES.keySet().stream()
+                .filter(name -> name.equals("id") || requested.contains(name))
+                .toList();
+        return new ProductFields(names);
+    }
+
+    // Attribute names, which are also the JSON keys
+    public List<String> names() {
+        return names;
+    }
+
+    public boolean contains(String name) {
+        return names.contains(name);
+    }
+
+    public Map<String, Object> of(Product product) {
+        Map<String, Object> values = new LinkedHashMap<>(names.size() * 2);
+        for (String name : names) {
+            values.put(name, ATTRIBUTES.get(name).apply(product));
+        }
+        return values;
+    }
+}
@@ -0,0 +1,6 @@
+package com.ruchir.InventoryStore.dto;
+
+public enum ProductImportFormat {
+    CSV,   // header row naming the columns: name,description,stockQuantity,lowStockThreshold,imageUrl
+    NDJSON // one product JSON object per line, same field names as POST /api/products
+}
@@ -0,0 +1,12 @@
+package com.ruchir.InventoryStore.dto;
+
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductImportRejection {
+    private long row; // 1-based record number (CSV header and blank lines not counted)
+    private String message;
+}
@@ -0,0 +1,18 @@
+package com.ruchir.InventoryStore.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductImportReport {
+    private long processed;
+    private long imported;
+    private long rejected;
+    private boolean complete; // false: the input was malformed and reading stopped (rows before it are kept)
+    private long elapsedMillis;
+    private List<ProductImportRejection> rejections; // the first inventory.import.max-reported-rejections
+}
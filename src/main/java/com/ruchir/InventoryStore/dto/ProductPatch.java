@@ -0,0 +1,16 @@
+package com.ruchir.InventoryStore.dto;
+
+import lombok.*;
+
+// Body of PATCH /api/products/{id}: only non-null fields are written
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductPatch {
+    private String name;
+    private String description;
+    private Integer stockQuantity;
+    private Integer lowStockThreshold;
+    private String imageUrl;
+}
@@ -0,0 +1,15 @@
+package com.ruchir.InventoryStore.dto;
+
+import com.ruchir.InventoryStore.model.Product;
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductSearchPage {
+    private long total; // matches across all pages
+    private List<Product> products; // best match first
+}
@@ -0,0 +1,12 @@
+package com.ruchir.InventoryStore.dto;
+
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockMovement {
+    private Long productId;
+    private int delta; // positive = stock in, negative = stock out
+}
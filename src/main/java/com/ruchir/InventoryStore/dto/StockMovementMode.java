@@ -0,0 +1,6 @@
+package com.ruchir.InventoryStore.dto;
+
+public enum StockMovementMode {
+    ALL_OR_NOTHING, // any rejected line rolls back the whole batch
+    BEST_EFFORT     // valid lines are applied, rejected lines are reported
+}
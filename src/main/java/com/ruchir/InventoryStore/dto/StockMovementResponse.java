@@ -0,0 +1,16 @@
+package com.ruchir.InventoryStore.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockMovementResponse {
+    private StockMovementMode mode;
+    private int applied;
+    private int rejected;
+    private List<StockMovementResult> results;
+}
@@ -0,0 +1,19 @@
+package com.ruchir.InventoryStore.dto;
+
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockMovementResult {
+
+    public enum Status { APPLIED, REJECTED, SKIPPED }
+
+    private int line; // index in the submitted batch
+    private Long productId;
+    private int delta;
+    private Status status;
+    private Integer newQuantity; // only set when applied
+    private String message;
+}
@@ -0,0 +1,13 @@
+package com.ruchir.InventoryStore.event;
+
+// Published by ProductServiceImpl on every mutation. Listeners that touch in-memory
+// state (caches, indexes) should use @TransactionalEventListener(AFTER_COMMIT) so a
+// rolled-back change never leaks out.
+// oldQuantity/newQuantity are the stock before and after the change (null when the
+// product didn't exist before / doesn't exist after). version is the product's version after
+// the change (for DELETED, one past the last stored version). RESERVATION = a hold was placed,
+// released or expired: available stock moved, stock itself didn't (old == new).
+public record ProductChangedEvent(Long productId, ChangeType type, Integer oldQuantity, Integer newQuantity, Long version) {
+
+    public enum ChangeType { CREATED, UPDATED, STOCK, RESERVATION, DELETED }
+}
@@ -0,0 +1,36 @@
+package com.ruchir.InventoryStore.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+// Shared copy of an idempotent response (inventory.idempotency.table.enabled=true), so a retry
+// that lands on another instance is replayed too. status = 0 while the first request is running.
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "idempotency_record", indexes = @Index(name = "idx_idempotency_record_expires_at", columnList = "expires_at"))
+public class IdempotencyRecord {
+
+    @Id
+    @Column(length = 320)
+    private String idempotencyKey; // "<user>:<Idempotency-Key header>"
+
+    @Column(nullable = false, length = 64)
+    private String fingerprint;
+
+    private int status;
+
+    private String contentType;
+
+    private String location;
+
+    @Column(length = 1_048_576)
+    private byte[] body;
+
+    @Column(nullable = false)
+    private Instant expiresAt;
+}
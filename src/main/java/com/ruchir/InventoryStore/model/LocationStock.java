@@ -0,0 +1,29 @@
+package com.ruchir.InventoryStore.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+// Stock of one product at one location (warehouse, store, ...). Location adjustments only lock
+// this row; the product's stockQuantity is the materialized total, rolled up from
+// LocationStockDelta rows by LocationStockRollup.
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "location_stock", uniqueConstraints =
+        @UniqueConstraint(name = "uk_location_stock_product_location", columnNames = {"product_id", "location"}))
+public class LocationStock {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long productId;
+
+    @Column(nullable = false, length = 64)
+    private String location;
+
+    private int quantity;
+}
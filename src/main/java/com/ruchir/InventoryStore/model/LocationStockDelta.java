@@ -0,0 +1,29 @@
+package com.ruchir.InventoryStore.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+// A location adjustment not yet added to the product total. Appended in the adjusting
+// transaction (an INSERT, so concurrent locations don't contend); folded into
+// product.stock_quantity and deleted by LocationStockRollup.
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "location_stock_delta", indexes = @Index(name = "idx_location_stock_delta_product", columnList = "product_id"))
+public class LocationStockDelta {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long productId;
+
+    private int delta;
+
+    private Instant createdAt;
+}
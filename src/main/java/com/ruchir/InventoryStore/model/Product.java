@@ -2,12 +2,13 @@ package com.ruchir.InventoryStore.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 
 @Entity
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-@Builder
+@Builder(toBuilder = true)
 public class Product {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -19,4 +20,17 @@ public class Product {
     private int lowStockThreshold;
 
     private String imageUrl; // product image path/url
+
+    // Units held by open reservations; available stock = stockQuantity - reservedQuantity.
+    // Only the reservation UPDATEs write it, never an entity save, so a PUT can't drop a hold.
+    @ColumnDefault("0")
+    @Column(nullable = false, insertable = false, updatable = false)
+    private int reservedQuantity;
+
+    // Bumped by every write, including the bulk stock UPDATEs; served as the ETag.
+    // The default backfills rows that predate the column.
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
 }
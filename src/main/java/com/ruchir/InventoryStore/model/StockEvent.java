@@ -0,0 +1,41 @@
+package com.ruchir.InventoryStore.model;
+
+import com.ruchir.InventoryStore.event.ProductChangedEvent.ChangeType;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+// Transactional outbox row for the stock change feed. Inserted in the same transaction as the
+// product change; `sequence` stays null until the relay publishes it. Consumers resume from the
+// last sequence they saw (the feed offset), which is assigned in commit order, unlike `id`.
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "stock_event", indexes = {
+        @Index(name = "idx_stock_event_sequence", columnList = "sequence", unique = true),
+        @Index(name = "idx_stock_event_product", columnList = "product_id, sequence")
+})
+public class StockEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private Long sequence;
+
+    private Long productId;
+
+    @Enumerated(EnumType.STRING)
+    private ChangeType type;
+
+    private Integer oldQuantity;
+    private Integer newQuantity;
+
+    // Product version the change produced; orders the events of one product
+    private Long version;
+
+    private Instant createdAt;
+}
@@ -0,0 +1,20 @@
+package com.ruchir.InventoryStore.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+// Highest journal sequence already applied to the product table by the stock ledger.
+// Written in the same transaction as the flushed deltas, so journal replay is idempotent.
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "stock_ledger_checkpoint")
+public class StockLedgerCheckpoint {
+
+    @Id
+    private String name;
+
+    private long lastSequence;
+}
@@ -0,0 +1,35 @@
+package com.ruchir.InventoryStore.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+// Units of one product held for a checkout until expiresAt. The product row only carries the
+// running total (Product.reservedQuantity); the hold is confirmed (units leave stock), released,
+// or swept once expired, and the row is deleted in each case.
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "stock_reservation", indexes = {
+        @Index(name = "idx_stock_reservation_expires_at", columnList = "expires_at"),
+        @Index(name = "idx_stock_reservation_product", columnList = "product_id")
+})
+public class StockReservation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long productId;
+
+    private int quantity;
+
+    @Column(nullable = false)
+    private Instant expiresAt;
+
+    private Instant createdAt;
+}
@@ -0,0 +1,151 @@
+package com.ruchir.InventoryStore.Config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ruchir.InventoryStore.Service.IdempotencyStore;
+import com.ruchir.InventoryStore.dao.IdempotencyRecordRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class IdempotencyTest {
+
+    @Autowired
+    private IdempotencyFilter filter;
+
+    @AfterEach
+    void clearUser() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void retryIsReplayedAndAReusedKeyIsRejected() throws Exception {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("retrying-client", null, List.of()));
+        AtomicInteger executed = new AtomicInteger();
+        FilterChain controller = (request, response) -> {
+            int n = executed.incrementAndGet();
+            response.setContentType("application/json");
+            response.getOutputStream().write(("{\"run\":" + n + "}").getBytes(StandardCharsets.UTF_8));
+        };
+
+        MockHttpServletResponse first = send("/api/products/7/decrease", "qty=2", controller);
+        MockHttpServletResponse retry = send("/api/products/7/decrease", "qty=2", controller);
+        MockHttpServletResponse reused = send("/api/products/7/decrease", "qty=5", controller);
+
+        assertEquals(1, executed.get());
+        assertEquals("{\"run\":1}", first.getContentAsString());
+        assertEquals("{\"run\":1}", retry.getContentAsString());
+        assertEquals("true", retry.getHeader("Idempotent-Replayed"));
+        assertNull(first.getHeader("Idempotent-Replayed"));
+        assertEquals(422, reused.getStatus());
+    }
+
+    @Test
+    void bufferedBodyCanBeReadAsynchronously() throws Exception {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("async-client", null, List.of()));
+        ByteArrayOutputStream read = new ByteArrayOutputStream();
+        AtomicBoolean allRead = new AtomicBoolean();
+        FilterChain controller = (request, response) -> {
+            ServletInputStream in = request.getInputStream();
+            in.setReadListener(new ReadListener() {
+                @Override
+                public void onDataAvailable() throws IOException {
+                    while (in.isReady() && !in.isFinished()) {
+                        read.write(in.read());
+                    }
+                }
+
+                @Override
+                public void onAllDataRead() {
+                    allRead.set(true);
+                }
+
+                @Override
+                public void onError(Throwable t) {
+                    throw new AssertionError(t);
+                }
+            });
+        };
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/products");
+        request.addHeader(IdempotencyFilter.HEADER, "create-42");
+        request.setContent("{\"name\":\"Async SKU\"}".getBytes(StandardCharsets.UTF_8));
+
+        filter.doFilter(request, new MockHttpServletResponse(), controller);
+
+        assertEquals("{\"name\":\"Async SKU\"}", read.toString(StandardCharsets.UTF_8));
+        assertTrue(allRead.get());
+    }
+
+    @Test
+    void keyStaysClaimedWhenTheResponseCantBeStored() throws Exception {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("unlucky-client", null, List.of()));
+        List<String> calls = new ArrayList<>();
+        IdempotencyRecordRepository failingTable = (IdempotencyRecordRepository) Proxy.newProxyInstance(
+                IdempotencyRecordRepository.class.getClassLoader(), new Class<?>[]{IdempotencyRecordRepository.class},
+                (proxy, method, args) -> {
+                    calls.add(method.getName());
+                    return switch (method.getName()) {
+                        case "complete" -> throw new DataAccessResourceFailureException("connection reset");
+                        case "findById" -> Optional.empty();
+                        default -> 1;
+                    };
+                });
+        IdempotencyStore store = new IdempotencyStore(failingTable, new SimpleMeterRegistry(),
+                true, Duration.ofHours(1), Duration.ofMinutes(1), DataSize.ofMegabytes(1));
+        IdempotencyFilter tableFilter = new IdempotencyFilter(store, new ObjectMapper());
+        AtomicInteger executed = new AtomicInteger();
+        FilterChain controller = (request, response) -> {
+            executed.incrementAndGet();
+            response.getOutputStream().write("{\"stockQuantity\":8}".getBytes(StandardCharsets.UTF_8));
+        };
+
+        MockHttpServletResponse first = send(tableFilter, "/api/products/7/decrease", "qty=2", controller);
+        MockHttpServletResponse retry = send(tableFilter, "/api/products/7/decrease", "qty=2", controller);
+
+        assertEquals(200, first.getStatus());
+        assertEquals("{\"stockQuantity\":8}", first.getContentAsString());
+        assertFalse(calls.contains("release")); // another instance must not run it again
+        assertEquals(1, executed.get());
+        assertEquals("true", retry.getHeader("Idempotent-Replayed"));
+    }
+
+    private MockHttpServletResponse send(String path, String query, FilterChain chain) throws Exception {
+        return send(filter, path, query, chain);
+    }
+
+    private MockHttpServletResponse send(IdempotencyFilter filter, String path, String query, FilterChain chain) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", path);
+        request.setQueryString(query);
+        request.addHeader(IdempotencyFilter.HEADER, "order-4711");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+}
@@ -0,0 +1,34 @@
+package com.ruchir.InventoryStore.Config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RateLimiterTest {
+
+    @Test
+    void burstIsAllowedThenOneRequestPerIntervalPerKey() {
+        AtomicLong now = new AtomicLong(TimeUnit.HOURS.toNanos(1));
+        RateLimiter limiter = new RateLimiter(2, 3, 100, now::get); // 2/s, bursts of 3
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiter.tryAcquire("looping-client"));
+        }
+        long wait = limiter.tryAcquire("looping-client");
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(500), wait);
+        assertEquals(0, limiter.tryAcquire("other-client")); // its own bucket
+
+        now.addAndGet(wait);
+        assertEquals(0, limiter.tryAcquire("looping-client"));
+        assertTrue(limiter.tryAcquire("looping-client") > 0);
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(10)); // idle long enough to be full again
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiter.tryAcquire("looping-client"));
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.ruchir.InventoryStore.Service;
+
+import com.ruchir.InventoryStore.Exceptions.TooManyRequestsException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BoundedPasswordEncoderTest {
+
+    @Test
+    void rejectsWithTooManyRequestsWhenPoolAndQueueAreFull() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        // One hashing thread and one queue slot: of 6 simultaneous logins at least 4 must be turned away
+        BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(12, 1, 1, registry);
+        ExecutorService callers = Executors.newFixedThreadPool(6);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            results.add(callers.submit(() -> {
+                start.await();
+                try {
+                    encoder.encode("secret");
+                    return true;
+                } catch (TooManyRequestsException e) {
+                    return false;
+                }
+            }));
+        }
+        start.countDown();
+        int accepted = 0;
+        for (Future<Boolean> result : results) {
+            if (result.get(60, TimeUnit.SECONDS)) {
+                accepted++;
+            }
+        }
+        callers.shutdown();
+        encoder.shutdown();
+
+        assertTrue(accepted >= 1 && accepted <= 2, "accepted " + accepted);
+        assertEquals(6 - accepted, registry.get("inventory.password.rejected").counter().count());
+    }
+
+    @Test
+    void upgradesHashesWhoseCostDiffersFromTheConfiguredStrength() {
+        BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(6, 1, 4, new SimpleMeterRegistry());
+
+        String current = encoder.encode("secret");
+        assertTrue(encoder.matches("secret", current));
+        assertFalse(encoder.upgradeEncoding(current));
+        assertTrue(encoder.upgradeEncoding(new BCryptPasswordEncoder(4).encode("secret")));  // weaker
+        assertTrue(encoder.upgradeEncoding(new BCryptPasswordEncoder(8).encode("secret")));  // stronger
+        encoder.shutdown();
+    }
+}
@@ -0,0 +1,56 @@
+package com.ruchir.InventoryStore.Service;
+
+import com.ruchir.InventoryStore.model.Product;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class CatalogVersionTest {
+
+    @Autowired
+    private ProductService service;
+
+    @Autowired
+    private CatalogVersion catalogVersion;
+
+    @Test
+    void everyCommittedChangeMovesTheVersionAndIsListedSinceTheOldOne() {
+        Product product = service.createProduct(Product.builder()
+                .name("Dashboard SKU")
+                .stockQuantity(10)
+                .lowStockThreshold(0)
+                .build());
+        String before = catalogVersion.current();
+
+        service.decreaseStock(product.getId(), 3);
+        String afterStock = catalogVersion.current();
+        assertNotEquals(before, afterStock);
+        assertTrue(catalogVersion.changedSince(before).contains(product.getId()));
+
+        service.deleteProduct(product.getId());
+        Set<Long> changed = catalogVersion.changedSince(afterStock);
+        assertTrue(changed.contains(product.getId()));
+
+        assertNull(catalogVersion.changedSince("0-1")); // another instance or an earlier run
+    }
+
+    @Test
+    void aChangeSeenLocallyAndThroughTheRelayCountsOnce() {
+        Long id = Long.MAX_VALUE - 7; // no real product: nothing else touches it
+        String before = catalogVersion.current();
+
+        catalogVersion.changed(id, 3L); // AFTER_COMMIT listener
+        String afterLocal = catalogVersion.current();
+        catalogVersion.changed(id, 3L); // the same change fed back by the relay
+
+        assertNotEquals(before, afterLocal);
+        assertEquals(afterLocal, catalogVersion.current());
+        catalogVersion.changed(id, 4L);
+        assertNotEquals(afterLocal, catalogVersion.current());
+    }
+}
@@ -0,0 +1,142 @@
+package com.ruchir.InventoryStore.Service;
+
+import com.ruchir.InventoryStore.Exceptions.InvalidStockOperationException;
+import com.ruchir.InventoryStore.Exceptions.InvalidStockOperationException.Reason;
+import com.ruchir.InventoryStore.dao.ProductRepository;
+import com.ruchir.InventoryStore.model.Product;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+@SpringBootTest(properties = {
+        "inventory.stock.coalescing.enabled=true",
+        "inventory.stock.coalescing.window=1ms"
+})
+class CoalescingProductServiceTest {
+
+    private static final int THREADS = 32;
+    private static final int OPS_PER_THREAD = 25;
+
+    @Autowired
+    private ProductService service;
+
+    @Autowired
+    private ProductRepository repo;
+
+    @Autowired
+    private LocationStockRollup rollup;
+
+    @Test
+    void combinedDecrementsAnswerEachCallerOnItsOwn() throws Exception {
+        assertInstanceOf(CoalescingProductService.class, service);
+        Product product = service.createProduct(Product.builder()
+                .name("Viral SKU")
+                .stockQuantity(500)
+                .lowStockThreshold(100)
+                .build());
+        AtomicInteger succeeded = new AtomicInteger();
+        Set<Integer> quantities = ConcurrentHashMap.newKeySet();
+        Set<Reason> reasons = ConcurrentHashMap.newKeySet();
+
+        // 800 attempts of one unit, 400 units above the threshold
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < OPS_PER_THREAD; i++) {
+                    try {
+                        quantities.add(service.decreaseStock(product.getId(), 1).getStockQuantity());
+                        succeeded.incrementAndGet();
+                    } catch (InvalidStockOperationException e) {
+                        reasons.add(e.getReason());
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> f : futures) {
+            f.get(60, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        assertEquals(400, succeeded.get());
+        assertEquals(400, quantities.size()); // every caller saw its own position: 499 down to 100
+        assertEquals(Set.of(Reason.THRESHOLD_VIOLATION), reasons);
+        assertEquals(100, repo.findStockQuantityById(product.getId()).orElseThrow());
+    }
+
+    @Test
+    void batchesOnlyTakeUnitsOutsideLocations() throws Exception {
+        Product product = service.createProduct(Product.builder()
+                .name("Shelved SKU")
+                .stockQuantity(10)
+                .lowStockThreshold(0)
+                .build());
+        service.adjustLocationStock(product.getId(), "east", 6);
+        rollup.rollup(); // total 16, 10 of them outside locations
+        AtomicInteger succeeded = new AtomicInteger();
+        Set<String> messages = ConcurrentHashMap.newKeySet();
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < 2; i++) {
+                    try {
+                        service.decreaseStock(product.getId(), 1);
+                        succeeded.incrementAndGet();
+                    } catch (InvalidStockOperationException e) {
+                        messages.add(e.getMessage());
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> f : futures) {
+            f.get(60, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        assertEquals(10, succeeded.get());
+        assertEquals(Set.of("Insufficient stock outside locations; decrease a location instead"), messages);
+        assertEquals(6, repo.findStockQuantityById(product.getId()).orElseThrow());
+    }
+
+    @Test
+    void decreaseReturnsTheCommittedVersion() {
+        Product product = service.createProduct(Product.builder()
+                .name("Versioned SKU")
+                .stockQuantity(10)
+                .lowStockThreshold(0)
+                .build());
+        service.getProduct(product.getId()); // cached row, as after a read
+
+        Product first = service.decreaseStock(product.getId(), 2);
+        Product second = service.decreaseStock(product.getId(), 3); // cache dropped by the first commit
+
+        assertEquals(8, first.getStockQuantity());
+        assertEquals(5, second.getStockQuantity());
+        assertEquals(first.getVersion() + 1, second.getVersion());
+        assertEquals(repo.findStockLevelById(product.getId()).orElseThrow().getVersion(), second.getVersion());
+    }
+}
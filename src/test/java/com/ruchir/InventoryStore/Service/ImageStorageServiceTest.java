@@ -0,0 +1,67 @@
+package com.ruchir.InventoryStore.Service;
+
+import com.ruchir.InventoryStore.Exceptions.PayloadTooLargeException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ImageStorageServiceTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void sameBytesAreStoredOnceUnderTheirHash() throws IOException {
+        ImageStorageService storage = storage(DataSize.ofKilobytes(64));
+        try {
+            byte[] bytes = "not really a jpeg".getBytes();
+            String first = storage.store(new MockMultipartFile("file", "front.JPG", "image/jpeg", bytes));
+            String second = storage.store(new MockMultipartFile("file", "copy-of-front.jpg", "image/jpeg", bytes));
+
+            assertEquals(first, second);
+            assertTrue(first.matches("[0-9a-f]{64}\\.jpg"));
+            assertEquals(List.of(first), storedFiles());
+            assertArrayEquals(bytes, Files.readAllBytes(storage.resolve(first, false)));
+        } finally {
+            storage.shutdown();
+        }
+    }
+
+    @Test
+    void oversizedUploadIsRejectedAndLeavesNothingBehind() throws IOException {
+        ImageStorageService storage = storage(DataSize.ofKilobytes(1));
+        try {
+            MockMultipartFile big = new MockMultipartFile("file", "big.png", "image/png", new byte[20_000]);
+
+            assertThrows(PayloadTooLargeException.class, () -> storage.store(big));
+
+            assertEquals(List.of(), storedFiles());
+            try (Stream<Path> staged = Files.list(dir.resolve(".incoming"))) {
+                assertEquals(0, staged.count());
+            }
+            assertNull(storage.resolve(".incoming", false));
+        } finally {
+            storage.shutdown();
+        }
+    }
+
+    private ImageStorageService storage(DataSize maxSize) throws IOException {
+        return new ImageStorageService(dir.toString(), maxSize, 200, 1, 10, false);
+    }
+
+    // Regular files directly in the image directory, i.e. what resolve() can serve
+    private List<String> storedFiles() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(Files::isRegularFile).map(p -> p.getFileName().toString()).toList();
+        }
+    }
+}
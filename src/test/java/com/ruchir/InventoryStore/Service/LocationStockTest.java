@@ -0,0 +1,116 @@
+package com.ruchir.InventoryStore.Service;
+
+import com.ruchir.InventoryStore.Exceptions.InvalidStockOperationException;
+import com.ruchir.InventoryStore.dao.ProductRepository;
+import com.ruchir.InventoryStore.dto.ProductPatch;
+import com.ruchir.InventoryStore.dto.StockMovement;
+import com.ruchir.InventoryStore.dto.StockMovementMode;
+import com.ruchir.InventoryStore.dto.StockMovementResult;
+import com.ruchir.InventoryStore.model.LocationStock;
+import com.ruchir.InventoryStore.model.Product;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+class LocationStockTest {
+
+    @Autowired
+    private ProductService service;
+
+    @Autowired
+    private ProductRepository repo;
+
+    @Autowired
+    private LocationStockRollup rollup;
+
+    @Test
+    void locationsNeverGoNegativeAndTheirAdjustmentsRollUpIntoTheTotal() {
+        Product product = service.createProduct(Product.builder()
+                .name("Multi-site SKU")
+                .stockQuantity(0)
+                .lowStockThreshold(0)
+                .build());
+        Long id = product.getId();
+
+        service.adjustLocationStock(id, "east", 30);
+        service.adjustLocationStock(id, "west", 20);
+        assertEquals(25, service.adjustLocationStock(id, "east", -5).getQuantity());
+        assertThrows(InvalidStockOperationException.class, () -> service.adjustLocationStock(id, "west", -21));
+        assertThrows(InvalidStockOperationException.class, () -> service.adjustLocationStock(id, "north", -1));
+
+        rollup.rollup();
+        assertEquals(45, service.getProduct(id).getStockQuantity());
+        assertEquals(List.of("east", "west"), service.getLocationStock(id).stream().map(LocationStock::getLocation).toList());
+    }
+
+    @Test
+    void concurrentLocationDecrementsAreAllCounted() throws Exception {
+        Product product = service.createProduct(Product.builder()
+                .name("Busy multi-site SKU")
+                .stockQuantity(0)
+                .lowStockThreshold(0)
+                .build());
+        Long id = product.getId();
+        String[] locations = {"a", "b", "c", "d"};
+        for (String location : locations) {
+            service.adjustLocationStock(id, location, 100);
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<LocationStock>> calls = new java.util.ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                String location = locations[i % locations.length];
+                calls.add(pool.submit(() -> service.adjustLocationStock(id, location, -1)));
+            }
+            for (Future<LocationStock> call : calls) {
+                call.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        rollup.rollup();
+        assertEquals(200, repo.findStockLevelById(id).orElseThrow().getStockQuantity());
+        service.getLocationStock(id).forEach(row -> assertEquals(50, row.getQuantity()));
+    }
+
+    @Test
+    void productLevelWritesCanOnlyTakeUnassignedStock() {
+        Product product = service.createProduct(Product.builder()
+                .name("Split SKU")
+                .stockQuantity(10) // unassigned
+                .lowStockThreshold(0)
+                .build());
+        Long id = product.getId();
+        service.adjustLocationStock(id, "east", 6); // total 16, 6 of them at east
+
+        // Before and after the rollup alike: only the 10 unassigned units are reachable
+        assertThrows(InvalidStockOperationException.class, () -> service.decreaseStock(id, 11));
+        service.decreaseStock(id, 4);
+        rollup.rollup();
+        assertThrows(InvalidStockOperationException.class, () -> service.decreaseStock(id, 7));
+        assertThrows(InvalidStockOperationException.class, () -> service.reserveStock(id, 7, Duration.ofMinutes(1)));
+        assertThrows(InvalidStockOperationException.class,
+                () -> service.patchProduct(id, ProductPatch.builder().stockQuantity(5).build(), null));
+        assertEquals(StockMovementResult.Status.REJECTED, service.applyStockMovements(
+                List.of(new StockMovement(id, -7)), StockMovementMode.BEST_EFFORT).getResults().get(0).getStatus());
+
+        // The location spends its own units, which leaves the unassigned ones as they were
+        service.adjustLocationStock(id, "east", -6);
+        service.decreaseStock(id, 6);
+        rollup.rollup();
+        assertEquals(0, repo.findStockLevelById(id).orElseThrow().getStockQuantity());
+        assertEquals(0, service.getLocationStock(id).get(0).getQuantity());
+    }
+}
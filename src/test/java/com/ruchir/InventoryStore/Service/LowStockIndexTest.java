@@ -0,0 +1,165 @@
+package com.ruchir.InventoryStore.Service;
+
+import com.ruchir.InventoryStore.dao.ProductRepository;
+import com.ruchir.InventoryStore.dto.ProductPatch;
+import com.ruchir.InventoryStore.event.ProductChangedEvent;
+import com.ruchir.InventoryStore.event.ProductChangedEvent.ChangeType;
+import com.ruchir.InventoryStore.model.Product;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class LowStockIndexTest {
+
+    @Autowired
+    private ProductService service;
+
+    @Autowired
+    private ProductRepository repo;
+
+    @Autowired
+    private LowStockIndex index;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Test
+    void lowStockMeansAtOrBelowTheProductsOwnThreshold() {
+        Product atThreshold = product(5, 5);
+        Product above = product(6, 5);
+        Product emptyWithoutThreshold = product(0, 0);
+
+        Set<Long> low = lowStockIds();
+
+        assertTrue(low.contains(atThreshold.getId()));
+        assertFalse(low.contains(above.getId()));
+        assertTrue(low.contains(emptyWithoutThreshold.getId()));
+    }
+
+    @Test
+    void stockChangesThresholdEditsAndDeletesUpdateTheSet() {
+        Product product = product(10, 3);
+        Long id = product.getId();
+        assertFalse(lowStockIds().contains(id));
+
+        service.patchProduct(id, ProductPatch.builder().lowStockThreshold(10).build(), null);
+        assertTrue(lowStockIds().contains(id));
+
+        service.increaseStock(id, 1);
+        assertFalse(lowStockIds().contains(id));
+
+        service.patchProduct(id, ProductPatch.builder().lowStockThreshold(2).build(), null);
+        service.decreaseStock(id, 9);
+        assertTrue(lowStockIds().contains(id));
+
+        service.deleteProduct(id);
+        assertFalse(lowStockIds().contains(id));
+    }
+
+    @Test
+    void rebuildPicksUpChangesThatPublishedNoEvent() {
+        Product product = product(10, 3);
+        lowStockIds();
+
+        // Written by another instance: no event reaches this one
+        jdbc.update("UPDATE product SET stock_quantity = 2 WHERE id = ?", product.getId());
+        index.rebuild();
+
+        assertTrue(lowStockIds().contains(product.getId()));
+    }
+
+    @Test
+    void changeCommittedDuringARebuildIsNotLost() {
+        Product product = product(10, 3);
+        Long id = product.getId();
+        boolean[] armed = {false};
+        LowStockIndex[] racing = new LowStockIndex[1];
+        // findLowStockIds snapshots, then the product goes low, its event arrives and a read applies it
+        ProductRepository slowSnapshot = (ProductRepository) Proxy.newProxyInstance(
+                ProductRepository.class.getClassLoader(), new Class<?>[]{ProductRepository.class},
+                (proxy, method, args) -> {
+                    Object result;
+                    try {
+                        result = method.invoke(repo, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                    if (armed[0] && method.getName().equals("findLowStockIds")) {
+                        armed[0] = false;
+                        jdbc.update("UPDATE product SET stock_quantity = 2 WHERE id = ?", id);
+                        racing[0].onProductChanged(new ProductChangedEvent(id, ChangeType.STOCK, 10, 2, 1L));
+                        assertTrue(ids(racing[0].lowStockProducts()).contains(id));
+                    }
+                    return result;
+                });
+        racing[0] = new LowStockIndex(slowSnapshot);
+        racing[0].rebuild();
+
+        armed[0] = true;
+        racing[0].rebuild();
+
+        assertTrue(ids(racing[0].lowStockProducts()).contains(id));
+    }
+
+    @Test
+    void overlappingReadsDontDropAProductThatWentLow() {
+        Product product = product(10, 3);
+        Long id = product.getId();
+        boolean[] armed = {false};
+        LowStockIndex[] racing = new LowStockIndex[1];
+        // read A loads the row while not low; the product goes low and read B applies it; then A
+        // applies its stale row
+        ProductRepository slowRead = (ProductRepository) Proxy.newProxyInstance(
+                ProductRepository.class.getClassLoader(), new Class<?>[]{ProductRepository.class},
+                (proxy, method, args) -> {
+                    Object result;
+                    try {
+                        result = method.invoke(repo, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                    if (armed[0] && method.getName().equals("findAllById")) {
+                        armed[0] = false;
+                        jdbc.update("UPDATE product SET stock_quantity = 2 WHERE id = ?", id);
+                        racing[0].onProductChanged(new ProductChangedEvent(id, ChangeType.STOCK, 10, 2, 1L));
+                        assertTrue(ids(racing[0].lowStockProducts()).contains(id));
+                    }
+                    return result;
+                });
+        racing[0] = new LowStockIndex(slowRead);
+        racing[0].rebuild();
+        racing[0].onProductChanged(new ProductChangedEvent(id, ChangeType.STOCK, 10, 10, 0L));
+
+        armed[0] = true;
+        assertFalse(ids(racing[0].lowStockProducts()).contains(id)); // A: answered from its own row
+
+        assertTrue(ids(racing[0].lowStockProducts()).contains(id));
+    }
+
+    private Product product(int stock, int threshold) {
+        return service.createProduct(Product.builder()
+                .name("Low stock SKU")
+                .stockQuantity(stock)
+                .lowStockThreshold(threshold)
+                .build());
+    }
+
+    private Set<Long> lowStockIds() {
+        return ids(service.getLowStockProducts());
+    }
+
+    private static Set<Long> ids(List<Product> products) {
+        return products.stream().map(Product::getId).collect(Collectors.toSet());
+    }
+}
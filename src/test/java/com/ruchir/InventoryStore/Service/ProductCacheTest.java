@@ -0,0 +1,98 @@
+package com.ruchir.InventoryStore.Service;
+
+import com.ruchir.InventoryStore.dto.ProductPatch;
+import com.ruchir.InventoryStore.dto.StockMovement;
+import com.ruchir.InventoryStore.dto.StockMovementMode;
+import com.ruchir.InventoryStore.model.Product;
+import com.ruchir.InventoryStore.model.StockReservation;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class ProductCacheTest {
+
+    @Autowired
+    private ProductService service;
+
+    @Autowired
+    private ProductCache cache;
+
+    @Autowired
+    private TransactionTemplate tx;
+
+    @Test
+    void everyCommittedWriteDropsTheCachedRow() {
+        assertEvicts(id -> service.updateProduct(id, Product.builder()
+                .name("Renamed").stockQuantity(20).lowStockThreshold(1).build(), null));
+        assertEvicts(id -> service.patchProduct(id, ProductPatch.builder().description("Patched").build(), null));
+        assertEvicts(id -> service.increaseStock(id, 1));
+        assertEvicts(id -> service.decreaseStock(id, 1));
+        assertEvicts(id -> service.adjustStock(id, -2));
+        assertEvicts(id -> service.applyStockMovements(
+                List.of(new StockMovement(id, 3)), StockMovementMode.ALL_OR_NOTHING));
+        assertEvicts(id -> service.reserveStock(id, 2, Duration.ofMinutes(5)));
+        StockReservation[] held = new StockReservation[1];
+        assertEvicts(id -> held[0] = service.reserveStock(id, 2, Duration.ofMinutes(5)),
+                id -> service.releaseReservation(held[0].getId()));
+        assertEvicts(id -> held[0] = service.reserveStock(id, 2, Duration.ofMinutes(5)),
+                id -> service.confirmReservation(held[0].getId()));
+        assertEvicts(id -> service.deleteProduct(id));
+    }
+
+    @Test
+    void rolledBackOrRejectedWritesLeaveTheCachedRow() {
+        Long id = cachedProduct();
+
+        tx.executeWithoutResult(status -> {
+            service.decreaseStock(id, 4);
+            status.setRollbackOnly();
+        });
+        assertNotNull(cache.peek(id));
+        assertEquals(10, cache.peek(id).getStockQuantity());
+
+        assertThrows(RuntimeException.class, () -> service.decreaseStock(id, 11));
+        assertEquals(10, cache.peek(id).getStockQuantity());
+        assertEquals(10, service.getProduct(id).getStockQuantity());
+    }
+
+    private void assertEvicts(Consumer<Long> write) {
+        assertEvicts(id -> { }, write);
+    }
+
+    // `setup` runs before the row is cached, `write` after; the row must be gone once `write` commits
+    private void assertEvicts(Consumer<Long> setup, Consumer<Long> write) {
+        Long id = service.createProduct(Product.builder()
+                .name("Cached SKU")
+                .stockQuantity(10)
+                .lowStockThreshold(0)
+                .build()).getId();
+        setup.accept(id);
+        Product before = service.getProduct(id);
+        assertNotNull(cache.peek(id));
+
+        write.accept(id);
+
+        assertNull(cache.peek(id));
+        if (!service.getProducts(List.of(id)).isEmpty()) { // not deleted: the next read sees the write
+            assertNotEquals(before.getVersion(), service.getProduct(id).getVersion());
+        }
+    }
+
+    private Long cachedProduct() {
+        Long id = service.createProduct(Product.builder()
+                .name("Cached SKU")
+                .stockQuantity(10)
+                .lowStockThreshold(0)
+                .build()).getId();
+        service.getProduct(id);
+        return id;
+    }
+}
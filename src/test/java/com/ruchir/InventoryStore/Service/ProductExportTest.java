@@ -0,0 +1,95 @@
+package com.ruchir.InventoryStore.Service;
+
+import com.ruchir.InventoryStore.model.Product;
+import jakarta.persistence.EntityManager;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Seeded inside the test transaction and rolled back; products other tests left in the shared
+// context stay in place and are counted as well
+@SpringBootTest
+@Transactional
+class ProductExportTest {
+
+    private static final int ROWS = 50_000;
+    private static final int WARM_UP_ROWS = 5_000;
+
+    @Autowired
+    private ProductService service;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private long catalogSize;
+
+    @BeforeEach
+    void seedCatalog() {
+        List<Object[]> rows = IntStream.range(0, ROWS)
+                .mapToObj(i -> new Object[]{"Product " + i, "Description for product " + i, 50, 5})
+                .toList();
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO product (name, description, stock_quantity, low_stock_threshold) VALUES (?, ?, ?, ?)",
+                rows);
+        catalogSize = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM product", Long.class);
+    }
+
+    @Test
+    void exportStreamsInConstantMemory() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        long[] heapAfterWarmUp = {0};
+        int[] maxManaged = {0};
+        int[] count = {0};
+
+        service.exportProducts(product -> {
+            count[0]++;
+            // the previous row must already be detached when the next one arrives
+            int managed = entityManager.unwrap(SharedSessionContractImplementor.class)
+                    .getPersistenceContextInternal()
+                    .getNumberOfManagedEntities();
+            maxManaged[0] = Math.max(maxManaged[0], managed);
+            if (count[0] == WARM_UP_ROWS) {
+                heapAfterWarmUp[0] = usedHeapAfterGc(memory);
+            }
+        });
+        long heapAtEnd = usedHeapAfterGc(memory);
+
+        assertEquals(catalogSize, count[0]);
+        assertTrue(maxManaged[0] <= 1, "persistence context grew to " + maxManaged[0] + " entities");
+        long growth = heapAtEnd - heapAfterWarmUp[0];
+        // 45k retained entities would cost tens of MB; allow GC noise only
+        assertTrue(growth < 8L * 1024 * 1024, "heap grew by " + growth / 1024 + " KB while streaming");
+    }
+
+    @Test
+    void keysetPagesWalkTheWholeCatalogOnce() {
+        long seen = 0;
+        Long after = null;
+        List<Product> page;
+        while (!(page = service.getProductsPage(after, 1_000)).isEmpty()) {
+            seen += page.size();
+            after = page.get(page.size() - 1).getId();
+        }
+        assertEquals(catalogSize, seen);
+    }
+
+    private static long usedHeapAfterGc(MemoryMXBean memory) {
+        System.gc();
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+}
@@ -0,0 +1,67 @@
+package com.ruchir.InventoryStore.Service;
+
+import com.ruchir.InventoryStore.Controller.ProductController;
+import com.ruchir.InventoryStore.Exceptions.InvalidStockOperationException;
+import com.ruchir.InventoryStore.dto.ProductFields;
+import com.ruchir.InventoryStore.model.Product;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+class ProductFieldsTest {
+
+    @Autowired
+    private ProductService service;
+
+    @Autowired
+    private ProductController controller;
+
+    @Test
+    void pageReturnsOnlyTheSelectedColumnsPlusId() {
+        Product product = service.createProduct(Product.builder()
+                .name("Handheld SKU")
+                .description("Not needed on the scanner")
+                .imageUrl("/api/products/images/x.jpg")
+                .stockQuantity(12)
+                .lowStockThreshold(2)
+                .build());
+
+        List<Map<String, Object>> page = service.getProductsPage(product.getId() - 1, 1,
+                ProductFields.parse("stockQuantity, name"));
+
+        assertEquals(List.of(Map.of("id", product.getId(), "name", "Handheld SKU", "stockQuantity", 12)), page);
+        assertEquals(List.of("id", "name", "stockQuantity"), List.copyOf(page.get(0).keySet()));
+        assertThrows(InvalidStockOperationException.class, () -> ProductFields.parse("name,price"));
+    }
+
+    @Test
+    void readsVaryByAcceptIncludingNotModified() {
+        Product product = service.createProduct(Product.builder()
+                .name("Negotiated SKU")
+                .stockQuantity(3)
+                .lowStockThreshold(0)
+                .build());
+        assertEquals(List.of(HttpHeaders.ACCEPT), controller.get(product.getId(), null).getHeaders().getVary());
+
+        MockHttpServletResponse first = new MockHttpServletResponse();
+        controller.getAll(null, 1, null, new ServletWebRequest(new MockHttpServletRequest("GET", "/api/products"), first));
+        MockHttpServletRequest poll = new MockHttpServletRequest("GET", "/api/products");
+        poll.addHeader(HttpHeaders.IF_NONE_MATCH, first.getHeader(HttpHeaders.ETAG));
+        MockHttpServletResponse notModified = new MockHttpServletResponse();
+        controller.getAll(null, 1, null, new ServletWebRequest(poll, notModified));
+
+        assertEquals(304, notModified.getStatus());
+        assertEquals(List.of(HttpHeaders.ACCEPT), notModified.getHeaders(HttpHeaders.VARY));
+    }
+}
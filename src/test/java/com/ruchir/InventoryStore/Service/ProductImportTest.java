@@ -0,0 +1,72 @@
+package com.ruchir.InventoryStore.Service;
+
+import com.ruchir.InventoryStore.dto.ProductImportFormat;
+import com.ruchir.InventoryStore.dto.ProductImportReport;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class ProductImportTest {
+
+    @Autowired
+    private ProductImporter importer;
+
+    @Autowired
+    private ProductService service;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void csvRowsAreImportedInBatchesAndBadRowsReported() {
+        StringBuilder csv = new StringBuilder("name,description,stockQuantity,lowStockThreshold\n");
+        for (int i = 0; i < 2_500; i++) {
+            csv.append("Quokkite widget ").append(i).append(",\"supplier, lot ").append(i).append("\",20,5\n");
+        }
+        csv.append("Below threshold,,2,5\n");
+        csv.append("Not a number,,many,0\n");
+
+        ProductImportReport report = importer.importProducts(stream(csv.toString()), ProductImportFormat.CSV);
+
+        assertTrue(report.isComplete());
+        assertEquals(2_502, report.getProcessed());
+        assertEquals(2_500, report.getImported());
+        assertEquals(2, report.getRejected());
+        assertEquals(2_501, report.getRejections().get(0).getRow());
+        assertEquals(2_500, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM stock_event e JOIN product p ON p.id = e.product_id " +
+                        "WHERE e.type = 'CREATED' AND p.name LIKE 'Quokkite widget %'", Integer.class));
+        assertEquals(2_500, service.searchProducts("quokkite", 0, 1).getTotal());
+    }
+
+    @Test
+    void malformedNdjsonLinesAreRejectedOneByOne() {
+        String ndjson = """
+                {"name":"Ndjson SKU 1","stockQuantity":4}
+                {"name":"broken",
+                {"name":"Ndjson SKU 2","stockQuantity":-1}
+
+                {"name":"Ndjson SKU 3","stockQuantity":9,"lowStockThreshold":3,"id":999}
+                """;
+
+        ProductImportReport report = importer.importProducts(stream(ndjson), ProductImportFormat.NDJSON);
+
+        assertEquals(4, report.getProcessed());
+        assertEquals(2, report.getImported());
+        assertEquals(2, report.getRejections().get(0).getRow());
+        assertFalse(report.getRejections().get(1).getMessage().isEmpty());
+    }
+
+    private static ByteArrayInputStream stream(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,45 @@
+package com.ruchir.InventoryStore.Service;
+
+import com.ruchir.InventoryStore.Exceptions.InvalidStockOperationException;
+import com.ruchir.InventoryStore.model.Product;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class ProductOperationMetricsTest {
+
+    @Autowired
+    private ProductService service;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void rejectedDecreaseIsTaggedWithItsReason() {
+        Product product = service.createProduct(Product.builder()
+                .name("Metered SKU")
+                .stockQuantity(10)
+                .lowStockThreshold(5)
+                .build());
+        long before = count("decreaseStock", "threshold_violation");
+
+        assertThrows(InvalidStockOperationException.class, () -> service.decreaseStock(product.getId(), 8));
+        service.decreaseStock(product.getId(), 2);
+
+        assertEquals(before + 1, count("decreaseStock", "threshold_violation"));
+        assertTrue(count("decreaseStock", "ok") > 0);
+    }
+
+    private long count(String operation, String outcome) {
+        var timer = meterRegistry.find("inventory.product.operation")
+                .tags("operation", operation, "outcome", outcome)
+                .timer();
+        return timer == null ? 0 : timer.count();
+    }
+}
@@ -0,0 +1,58 @@
+package com.ruchir.InventoryStore.Service;
+
+import com.ruchir.InventoryStore.dto.ProductPatch;
+import com.ruchir.InventoryStore.dto.ProductSearchPage;
+import com.ruchir.InventoryStore.model.Product;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+class ProductSearchTest {
+
+    @Autowired
+    private ProductService service;
+
+    @Test
+    void ranksNameMatchesFirstAndMatchesLastWordAsPrefix() {
+        Product inDescription = create("Wall anchor", "Fits a zinkplated hexbolt");
+        Product inName = create("Zinkplated hexbolt M8", "Pack of 50");
+        create("Zinkplated washer", "M8");
+
+        ProductSearchPage page = service.searchProducts("zinkplated hexb", 0, 10);
+
+        assertEquals(2, page.getTotal());
+        assertEquals(List.of(inName.getId(), inDescription.getId()), ids(page));
+        assertEquals(0, service.searchProducts("zinkplated hexb ", 0, 10).getTotal()); // complete word: no prefix
+    }
+
+    @Test
+    void followsCommittedEditsAndDeletes() {
+        Product product = create("Qwertyfoo lamp", "Desk lamp");
+        assertEquals(1, service.searchProducts("qwertyfoo", 0, 10).getTotal());
+
+        service.patchProduct(product.getId(), ProductPatch.builder().name("Qwertybar lamp").build(), null);
+        assertEquals(0, service.searchProducts("qwertyfoo", 0, 10).getTotal());
+        assertEquals(List.of(product.getId()), ids(service.searchProducts("Qwértybar", 0, 10)));
+
+        service.deleteProduct(product.getId());
+        assertEquals(0, service.searchProducts("qwertybar", 0, 10).getTotal());
+    }
+
+    private Product create(String name, String description) {
+        return service.createProduct(Product.builder()
+                .name(name)
+                .description(description)
+                .stockQuantity(10)
+                .lowStockThreshold(1)
+                .build());
+    }
+
+    private static List<Long> ids(ProductSearchPage page) {
+        return page.getProducts().stream().map(Product::getId).toList();
+    }
+}
@@ -0,0 +1,103 @@
+package com.ruchir.InventoryStore.Service;
+
+import com.ruchir.InventoryStore.Exceptions.InvalidStockOperationException;
+import com.ruchir.InventoryStore.dao.ProductRepository;
+import com.ruchir.InventoryStore.model.Product;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+class ProductServiceImplConcurrencyTest {
+
+    private static final int THREADS = 32;
+    private static final int OPS_PER_THREAD = 25;
+
+    @Autowired
+    private ProductService service;
+
+    @Autowired
+    private ProductRepository repo;
+
+    @Test
+    void concurrentDecreasesNeverOversellOrCrossThreshold() throws Exception {
+        Product product = service.createProduct(Product.builder()
+                .name("Hot SKU")
+                .stockQuantity(500)
+                .lowStockThreshold(100)
+                .build());
+
+        AtomicInteger succeeded = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+
+        // 32 x 25 = 800 attempts, but only 400 units sit above the threshold
+        hammer(() -> {
+            try {
+                service.decreaseStock(product.getId(), 1);
+                succeeded.incrementAndGet();
+            } catch (InvalidStockOperationException e) {
+                rejected.incrementAndGet();
+            }
+        });
+
+        assertEquals(400, succeeded.get());
+        assertEquals(400, rejected.get());
+        assertEquals(100, repo.findStockQuantityById(product.getId()).orElseThrow());
+    }
+
+    @Test
+    void concurrentIncreasesAreNotLost() throws Exception {
+        Product product = service.createProduct(Product.builder()
+                .name("Restocked SKU")
+                .stockQuantity(0)
+                .lowStockThreshold(0)
+                .build());
+
+        hammer(() -> service.increaseStock(product.getId(), 2));
+
+        assertEquals(THREADS * OPS_PER_THREAD * 2, repo.findStockQuantityById(product.getId()).orElseThrow());
+    }
+
+    @Test
+    void adjustStockReturnsNewQuantity() {
+        Product product = service.createProduct(Product.builder()
+                .name("Plain SKU")
+                .stockQuantity(10)
+                .lowStockThreshold(2)
+                .build());
+
+        assertEquals(15, service.adjustStock(product.getId(), 5));
+        assertEquals(3, service.adjustStock(product.getId(), -12));
+    }
+
+    private void hammer(Runnable op) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < OPS_PER_THREAD; i++) {
+                    op.run();
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> f : futures) {
+            f.get(60, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+    }
+}
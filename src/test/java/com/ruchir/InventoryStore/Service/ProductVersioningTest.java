@@ -0,0 +1,61 @@
+package com.ruchir.InventoryStore.Service;
+
+import com.ruchir.InventoryStore.Exceptions.PreconditionFailedException;
+import com.ruchir.InventoryStore.dao.ProductRepository;
+import com.ruchir.InventoryStore.dto.ProductPatch;
+import com.ruchir.InventoryStore.model.Product;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+class ProductVersioningTest {
+
+    @Autowired
+    private ProductService service;
+
+    @Autowired
+    private ProductRepository repo;
+
+    @Test
+    void staleVersionIsRejectedAfterStockAdjustment() {
+        Product product = service.createProduct(Product.builder()
+                .name("Versioned SKU")
+                .stockQuantity(50)
+                .lowStockThreshold(5)
+                .build());
+        long seen = service.getProduct(product.getId()).getVersion();
+
+        service.increaseStock(product.getId(), 10); // bulk UPDATE, must still bump the version
+
+        Product edit = product.toBuilder().name("Renamed").stockQuantity(60).build();
+        assertThrows(PreconditionFailedException.class,
+                () -> service.updateProduct(product.getId(), edit, seen));
+        assertThrows(PreconditionFailedException.class,
+                () -> service.patchProduct(product.getId(), ProductPatch.builder().name("Renamed").build(), seen));
+
+        Product saved = service.updateProduct(product.getId(), edit, seen + 1);
+        assertEquals("Renamed", saved.getName());
+        assertEquals(seen + 2, saved.getVersion());
+    }
+
+    @Test
+    void patchWritesOnlySuppliedFields() {
+        Product product = service.createProduct(Product.builder()
+                .name("Patch SKU")
+                .description("unchanged")
+                .stockQuantity(20)
+                .lowStockThreshold(2)
+                .build());
+
+        long version = service.patchProduct(product.getId(), ProductPatch.builder().stockQuantity(30).build(), null);
+
+        Product reloaded = repo.findById(product.getId()).orElseThrow();
+        assertEquals(30, reloaded.getStockQuantity());
+        assertEquals("unchanged", reloaded.getDescription());
+        assertEquals(version, reloaded.getVersion());
+    }
+}
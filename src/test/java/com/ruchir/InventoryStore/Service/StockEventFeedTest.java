@@ -0,0 +1,91 @@
+package com.ruchir.InventoryStore.Service;
+
+import com.ruchir.InventoryStore.Exceptions.InvalidStockOperationException;
+import com.ruchir.InventoryStore.dao.StockEventRepository;
+import com.ruchir.InventoryStore.event.ProductChangedEvent.ChangeType;
+import com.ruchir.InventoryStore.model.Product;
+import com.ruchir.InventoryStore.model.StockEvent;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class StockEventFeedTest {
+
+    @Autowired
+    private ProductService service;
+
+    @Autowired
+    private StockEventRelay relay;
+
+    @Autowired
+    private StockEventRepository events;
+
+    @Test
+    void everyCommittedStockChangeIsPublishedInOrder() {
+        Product product = service.createProduct(Product.builder()
+                .name("Feed SKU")
+                .stockQuantity(10)
+                .lowStockThreshold(2)
+                .build());
+        service.adjustStock(product.getId(), 5);
+        service.decreaseStock(product.getId(), 3);
+        assertThrows(InvalidStockOperationException.class, () -> service.decreaseStock(product.getId(), 50)); // rolled back
+
+        relay.relay();
+
+        List<StockEvent> feed = events.findBySequenceGreaterThanOrderBySequenceAsc(0, Limit.unlimited()).stream()
+                .filter(e -> e.getProductId().equals(product.getId()))
+                .toList();
+        assertEquals(3, feed.size());
+        assertEquals(ChangeType.CREATED, feed.get(0).getType());
+        assertEquals(10, feed.get(0).getNewQuantity());
+        assertEquals(10, feed.get(1).getOldQuantity());
+        assertEquals(15, feed.get(1).getNewQuantity());
+        assertEquals(15, feed.get(2).getOldQuantity());
+        assertEquals(12, feed.get(2).getNewQuantity());
+        assertTrue(feed.get(0).getSequence() < feed.get(1).getSequence()
+                && feed.get(1).getSequence() < feed.get(2).getSequence());
+    }
+
+    @Test
+    void subscriberResumesAfterItsOffset() throws Exception {
+        Product product = service.createProduct(Product.builder()
+                .name("Resume SKU")
+                .stockQuantity(100)
+                .lowStockThreshold(0)
+                .build());
+        relay.relay();
+        long offset = events.findMaxSequence();
+
+        List<StockEvent> received = new CopyOnWriteArrayList<>();
+        CountDownLatch delivered = new CountDownLatch(1);
+        relay.subscribe(new StockEventRelay.Subscription(offset) {
+            @Override
+            protected boolean send(List<StockEvent> batch) {
+                received.addAll(batch);
+                delivered.countDown();
+                return false;
+            }
+        }, true);
+
+        service.adjustStock(product.getId(), -1);
+        relay.relay();
+
+        assertTrue(delivered.await(5, TimeUnit.SECONDS));
+        assertEquals(1, received.size());
+        assertEquals(product.getId(), received.get(0).getProductId());
+        assertEquals(99, received.get(0).getNewQuantity());
+        assertTrue(received.get(0).getSequence() > offset);
+    }
+}
@@ -0,0 +1,125 @@
+package com.ruchir.InventoryStore.Service;
+
+import com.ruchir.InventoryStore.Exceptions.InvalidStockOperationException;
+import com.ruchir.InventoryStore.dao.ProductRepository;
+import com.ruchir.InventoryStore.dao.StockLedgerCheckpointRepository;
+import com.ruchir.InventoryStore.model.Product;
+import com.ruchir.InventoryStore.model.StockLedgerCheckpoint;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "inventory.stock.engine=ledger",
+        "inventory.stock.ledger.flush-interval=1h", // flushed explicitly by the tests
+        "inventory.stock.ledger.journal-dir=target/stock-ledger-test/${random.uuid}"
+})
+class StockLedgerTest {
+
+    @Autowired
+    private ProductService service;
+
+    @Autowired
+    private StockLedger ledger;
+
+    @Autowired
+    private ProductRepository repo;
+
+    @Autowired
+    private CatalogVersion catalogVersion;
+
+    @Autowired
+    private StockLedgerCheckpointRepository checkpoints;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private TransactionTemplate tx;
+
+    @Autowired
+    private ApplicationEventPublisher events;
+
+    @Test
+    void enforcesThresholdInMemoryAndFlushesNetDelta() throws Exception {
+        Product product = service.createProduct(Product.builder().name("Ledger SKU").stockQuantity(300).lowStockThreshold(100).build());
+        AtomicInteger succeeded = new AtomicInteger();
+
+        ExecutorService pool = Executors.newFixedThreadPool(16);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 16; t++) {
+            futures.add(pool.submit(() -> {
+                for (int i = 0; i < 25; i++) {
+                    try {
+                        service.decreaseStock(product.getId(), 1);
+                        succeeded.incrementAndGet();
+                    } catch (InvalidStockOperationException ignored) {
+                    }
+                }
+            }));
+        }
+        for (Future<?> f : futures) {
+            f.get();
+        }
+        pool.shutdown();
+
+        assertEquals(200, succeeded.get());
+        assertEquals(100, service.getProduct(product.getId()).getStockQuantity());
+        assertEquals(300, repo.findStockQuantityById(product.getId()).orElseThrow()); // not flushed yet
+
+        ledger.flush();
+        assertEquals(100, repo.findStockQuantityById(product.getId()).orElseThrow());
+    }
+
+    @Test
+    void catalogVersionMovesBeforeTheFlush() {
+        Product product = service.createProduct(Product.builder().name("Tagged SKU").stockQuantity(20).lowStockThreshold(0).build());
+        String before = catalogVersion.current();
+
+        service.decreaseStock(product.getId(), 3); // only in the ledger so far
+
+        assertNotEquals(before, catalogVersion.current());
+        assertTrue(catalogVersion.changedSince(before).contains(product.getId()));
+    }
+
+    @Test
+    void replaysOnlyRecordsNewerThanTheCheckpoint() throws Exception {
+        Product product = service.createProduct(Product.builder().name("Replay SKU").stockQuantity(50).lowStockThreshold(0).build());
+        service.decreaseStock(product.getId(), 5);
+        ledger.flush(); // the row now has the -5
+        StockLedgerCheckpoint running = checkpoints.findById("stock-ledger").orElseThrow();
+
+        // journal of an instance that crashed after flushing its first record but not the second
+        Path dir = Files.createTempDirectory("journal");
+        try (StockJournal crashed = new StockJournal(dir, false)) {
+            crashed.recover(0);
+            crashed.append(product.getId(), -5); // seq 1, covered by the checkpoint
+            crashed.append(product.getId(), -7); // seq 2, lost with the crash
+        }
+        checkpoints.save(new StockLedgerCheckpoint("stock-ledger", 1));
+        try {
+            StockLedger restarted = new StockLedger(repo, checkpoints, jdbc, tx, events, dir.toString(), false, 4);
+            restarted.recover();
+            restarted.shutdown();
+
+            assertEquals(38, repo.findStockQuantityById(product.getId()).orElseThrow());
+            assertEquals(2, checkpoints.findById("stock-ledger").orElseThrow().getLastSequence());
+        } finally {
+            checkpoints.save(running);
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.ruchir.InventoryStore.Service;
+
+import com.ruchir.InventoryStore.Controller.ProductController;
+import com.ruchir.InventoryStore.dao.ProductRepository;
+import com.ruchir.InventoryStore.dto.StockMovement;
+import com.ruchir.InventoryStore.dto.StockMovementMode;
+import com.ruchir.InventoryStore.dto.StockMovementResponse;
+import com.ruchir.InventoryStore.dto.StockMovementResult;
+import com.ruchir.InventoryStore.dto.StockMovementResult.Status;
+import com.ruchir.InventoryStore.model.Product;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class StockMovementsTest {
+
+    @Autowired
+    private ProductService service;
+
+    @Autowired
+    private ProductController controller;
+
+    @Autowired
+    private ProductRepository repo;
+
+    @Test
+    void allOrNothingAppliesNothingWhenOneLineIsRejected() {
+        Product a = product(10, 0);
+        Product b = product(5, 0);
+
+        ResponseEntity<StockMovementResponse> response = controller.stockMovements(List.of(
+                move(a, 4),
+                move(b, -6), // only 5 in stock
+                move(a, -1)), StockMovementMode.ALL_OR_NOTHING);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        StockMovementResponse body = response.getBody();
+        assertEquals(0, body.getApplied());
+        assertEquals(1, body.getRejected());
+        assertEquals(List.of(Status.SKIPPED, Status.REJECTED, Status.SKIPPED), statuses(body));
+        assertNull(body.getResults().get(0).getNewQuantity());
+        assertEquals(10, quantity(a));
+        assertEquals(5, quantity(b));
+    }
+
+    @Test
+    void bestEffortAppliesTheValidLines() {
+        Product a = product(10, 0);
+        Product b = product(5, 0);
+
+        ResponseEntity<StockMovementResponse> response = controller.stockMovements(List.of(
+                move(a, 4),
+                move(b, -6),
+                move(b, -2)), StockMovementMode.BEST_EFFORT);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(List.of(Status.APPLIED, Status.REJECTED, Status.APPLIED), statuses(response.getBody()));
+        assertEquals(2, response.getBody().getApplied());
+        assertEquals(14, quantity(a));
+        assertEquals(3, quantity(b));
+    }
+
+    @Test
+    void repeatedProductIdsRunAgainstTheQuantityOfTheLinesBefore() {
+        Product a = product(10, 2);
+
+        StockMovementResponse response = service.applyStockMovements(List.of(
+                move(a, -5),
+                move(a, -4), // 10 - 5 - 4 = 1 would be below the threshold of 2
+                move(a, 3),
+                move(a, -4)), StockMovementMode.BEST_EFFORT);
+
+        assertEquals(List.of(Status.APPLIED, Status.REJECTED, Status.APPLIED, Status.APPLIED), statuses(response));
+        assertEquals(List.of(5, 8, 4), response.getResults().stream()
+                .map(StockMovementResult::getNewQuantity)
+                .filter(q -> q != null)
+                .toList());
+        assertEquals(4, quantity(a));
+    }
+
+    @Test
+    void unknownProductsAndZeroDeltasAreRejected() {
+        Product a = product(10, 0);
+
+        StockMovementResponse response = service.applyStockMovements(List.of(
+                StockMovement.builder().productId(Long.MAX_VALUE).delta(1).build(),
+                StockMovement.builder().productId(null).delta(1).build(),
+                move(a, 0),
+                move(a, 1)), StockMovementMode.BEST_EFFORT);
+
+        assertEquals(List.of(Status.REJECTED, Status.REJECTED, Status.REJECTED, Status.APPLIED), statuses(response));
+        assertTrue(response.getResults().get(0).getMessage().startsWith("Product not found"));
+        assertEquals("Delta must be non-zero", response.getResults().get(2).getMessage());
+        assertEquals(11, quantity(a));
+    }
+
+    @Test
+    void reservedUnitsCannotBeMovedOut() {
+        Product a = product(10, 0);
+        service.reserveStock(a.getId(), 7, Duration.ofMinutes(5));
+
+        StockMovementResponse response = service.applyStockMovements(List.of(
+                move(a, -4), // only 3 unreserved
+                move(a, -3)), StockMovementMode.BEST_EFFORT);
+
+        assertEquals(List.of(Status.REJECTED, Status.APPLIED), statuses(response));
+        assertEquals(7, quantity(a));
+        assertEquals(7, repo.findStockLevelById(a.getId()).orElseThrow().getReservedQuantity());
+    }
+
+    private Product product(int stock, int threshold) {
+        return service.createProduct(Product.builder()
+                .name("Movement SKU")
+                .stockQuantity(stock)
+                .lowStockThreshold(threshold)
+                .build());
+    }
+
+    private static StockMovement move(Product product, int delta) {
+        return StockMovement.builder().productId(product.getId()).delta(delta).build();
+    }
+
+    private static List<Status> statuses(StockMovementResponse response) {
+        return response.getResults().stream().map(StockMovementResult::getStatus).toList();
+    }
+
+    private int quantity(Product product) {
+        return repo.findStockQuantityById(product.getId()).orElseThrow();
+    }
+}
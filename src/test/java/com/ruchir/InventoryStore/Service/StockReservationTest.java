@@ -0,0 +1,65 @@
+package com.ruchir.InventoryStore.Service;
+
+import com.ruchir.InventoryStore.Exceptions.InvalidStockOperationException;
+import com.ruchir.InventoryStore.Exceptions.ResourceNotFoundException;
+import com.ruchir.InventoryStore.dao.ProductRepository;
+import com.ruchir.InventoryStore.model.Product;
+import com.ruchir.InventoryStore.model.StockReservation;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+class StockReservationTest {
+
+    @Autowired
+    private ProductService service;
+
+    @Autowired
+    private ProductRepository repo;
+
+    @Test
+    void heldUnitsAreNotAvailableUntilReleasedAndLeaveStockOnConfirm() {
+        Product product = service.createProduct(Product.builder()
+                .name("Reserved SKU")
+                .stockQuantity(10)
+                .lowStockThreshold(0)
+                .build());
+        Long id = product.getId();
+
+        StockReservation cart = service.reserveStock(id, 7, null);
+        assertThrows(InvalidStockOperationException.class, () -> service.decreaseStock(id, 4));
+        assertThrows(InvalidStockOperationException.class, () -> service.reserveStock(id, 4, null));
+
+        service.releaseReservation(cart.getId());
+        service.decreaseStock(id, 4);
+
+        StockReservation second = service.reserveStock(id, 3, Duration.ofMinutes(5));
+        Product confirmed = service.confirmReservation(second.getId());
+        assertEquals(3, confirmed.getStockQuantity());
+        assertEquals(0, confirmed.getReservedQuantity());
+        assertThrows(ResourceNotFoundException.class, () -> service.confirmReservation(second.getId()));
+    }
+
+    @Test
+    void expiredHoldsAreSweptBackIntoAvailableStock() throws InterruptedException {
+        Product product = service.createProduct(Product.builder()
+                .name("Abandoned cart SKU")
+                .stockQuantity(5)
+                .lowStockThreshold(0)
+                .build());
+        StockReservation cart = service.reserveStock(product.getId(), 5, Duration.ofMillis(1));
+
+        Thread.sleep(20);
+        assertThrows(ResourceNotFoundException.class, () -> service.confirmReservation(cart.getId()));
+        service.releaseExpiredReservations(100);
+
+        assertEquals(0, repo.findStockLevelById(product.getId()).orElseThrow().getReservedQuantity());
+        assertEquals(0, service.decreaseStock(product.getId(), 5).getStockQuantity());
+    }
+}